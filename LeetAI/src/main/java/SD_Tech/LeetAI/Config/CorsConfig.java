@@ -18,6 +18,7 @@ public class CorsConfig {
         config.setAllowedOrigins(List.of("http://localhost:5173" , "http://127.0.0.1:5173")); // React dev server
         config.setAllowedHeaders(List.of("*"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.setExposedHeaders(List.of("X-Next-Cursor", "Idempotent-Replayed"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
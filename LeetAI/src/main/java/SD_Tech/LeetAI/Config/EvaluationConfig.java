@@ -0,0 +1,22 @@
+package SD_Tech.LeetAI.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@Configuration
+public class EvaluationConfig {
+
+    // One virtual thread per evaluation: the blocking repository and Judge0 waits park the
+    // virtual thread instead of holding a platform thread. The concurrency limit caps the
+    // number of running jobs; the dispatcher only claims as many as are free.
+    @Bean(name = "evaluationExecutor")
+    public SimpleAsyncTaskExecutor evaluationExecutor(@Value("${evaluation.workers:64}") int workers) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("evaluation-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(workers);
+        executor.setTaskTerminationTimeout(30000);
+        return executor;
+    }
+}
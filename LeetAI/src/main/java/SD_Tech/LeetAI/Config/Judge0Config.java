@@ -0,0 +1,21 @@
+package SD_Tech.LeetAI.Config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import SD_Tech.LeetAI.Service.TokenBucketRateLimiter;
+
+@Configuration
+public class Judge0Config {
+
+    @Bean
+    public TokenBucketRateLimiter judge0RateLimiter(
+            @Value("${judge0.rate-limit.permits-per-minute:30}") int permitsPerMinute,
+            @Value("${judge0.rate-limit.burst:5}") int burst,
+            @Value("${judge0.rate-limit.max-wait-ms:120000}") long maxWaitMs) {
+        return new TokenBucketRateLimiter(permitsPerMinute, burst, Duration.ofMillis(maxWaitMs));
+    }
+}
@@ -0,0 +1,98 @@
+package SD_Tech.LeetAI.Controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import SD_Tech.LeetAI.DTO.Judge0Response;
+import SD_Tech.LeetAI.Service.Judge0CallbackRegistry;
+
+/**
+ * Receives finished submissions from Judge0 ({@code callback_url}) so evaluations
+ * don't have to poll for them. Disabled (404) unless judge0.callback.secret is set,
+ * since the endpoint is reachable without authentication.
+ *
+ * Judge0 always sends stdout, stderr and compile_output base64-encoded in the callback,
+ * whatever base64_encoded the submission was created with; they are decoded here.
+ * Stand-ins that send plain text add {@code base64_encoded=false}.
+ *
+ * Callbacks are matched in memory with the batch waiting on this node, so judge0.callback.url
+ * must reach the node that submitted the batch: run a single node, give each node its own
+ * URL, or route the callback path stickily. A callback that lands on another node is parked
+ * there unused, and the batch polls for the result once judge0.callback.wait-ms has passed.
+ */
+@RestController
+@RequestMapping("/api/internal/judge0")
+public class Judge0CallbackController {
+
+    private static final Logger logger = LoggerFactory.getLogger(Judge0CallbackController.class);
+
+    @Autowired
+    private Judge0CallbackRegistry judge0CallbackRegistry;
+
+    @Value("${judge0.callback.secret:}")
+    private String callbackSecret;
+
+    // Judge0 issues a PUT; POST is accepted as well for stand-ins and proxies
+    @RequestMapping(value = "/callback", method = { RequestMethod.PUT, RequestMethod.POST })
+    public ResponseEntity<Void> onSubmissionFinished(
+            @RequestBody Judge0Response response,
+            @RequestParam(required = false) String secret,
+            @RequestParam(name = "base64_encoded", defaultValue = "true") boolean base64Encoded) {
+
+        if (callbackSecret == null || callbackSecret.isBlank()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!secretMatches(secret)) {
+            logger.warn("Rejected Judge0 callback with invalid secret for token {}", response.getToken());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        if (response.getToken() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (base64Encoded) {
+            try {
+                decodeOutputs(response);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Rejected Judge0 callback for token {}: output is not base64", response.getToken());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        boolean matched = judge0CallbackRegistry.complete(response);
+        logger.debug("Judge0 callback for token {} (status: {}, matched: {})", response.getToken(),
+                response.getStatus() != null ? response.getStatus().getId() : null, matched);
+
+        // 202 when the token was parked because its batch is not registered yet
+        return matched ? ResponseEntity.ok().build() : ResponseEntity.accepted().build();
+    }
+
+    private static void decodeOutputs(Judge0Response response) {
+        response.setStdout(decode(response.getStdout()));
+        response.setStderr(decode(response.getStderr()));
+        response.setCompile_output(decode(response.getCompile_output()));
+    }
+
+    // Judge0 encodes with line breaks every 60 characters, which the MIME decoder skips
+    private static String decode(String value) {
+        return value == null ? null : new String(Base64.getMimeDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+
+    private boolean secretMatches(String secret) {
+        return secret != null && MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8), callbackSecret.getBytes(StandardCharsets.UTF_8));
+    }
+}
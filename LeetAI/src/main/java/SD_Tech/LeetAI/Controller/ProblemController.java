@@ -5,12 +5,13 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -28,34 +29,56 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import SD_Tech.LeetAI.DTO.Judge0Response;
+import SD_Tech.LeetAI.DTO.ProblemCursor;
+import SD_Tech.LeetAI.DTO.ProblemSummaryDTO;
 import SD_Tech.LeetAI.Entity.CodeTemplate;
 import SD_Tech.LeetAI.Entity.Problem;
+import SD_Tech.LeetAI.Entity.ProblemStats;
 import SD_Tech.LeetAI.Entity.Tag;
 import SD_Tech.LeetAI.Entity.TestCase;
 import SD_Tech.LeetAI.Repository.ProblemRepository;
+import SD_Tech.LeetAI.Repository.ProblemSort;
+import SD_Tech.LeetAI.Repository.ProblemStatsRepository;
 import SD_Tech.LeetAI.Repository.TagRepository;
 import SD_Tech.LeetAI.Service.GeminiService;
 import SD_Tech.LeetAI.Service.GeminiService.GeneratedProblem;
 import SD_Tech.LeetAI.Service.GeminiService.GeneratedTestCase;
-import SD_Tech.LeetAI.Service.Judge0Service;
+import SD_Tech.LeetAI.Service.CodeExecutor;
+import SD_Tech.LeetAI.Service.EvaluationContext;
+import SD_Tech.LeetAI.Service.OutputComparator;
+import SD_Tech.LeetAI.Service.ProblemCountCache;
+import SD_Tech.LeetAI.Service.ProblemSearchIndex;
 
 @RestController
 @RequestMapping("/api/problems")
 public class ProblemController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProblemController.class);
+
+    // Cursor of the next keyset page of problems, absent on the last page
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_PAGE_SIZE = 100;
     
     @Autowired
     private ProblemRepository problemRepository;
 
     @Autowired
     private TagRepository tagRepository;
+
+    @Autowired
+    private ProblemCountCache problemCountCache;
+
+    @Autowired
+    private ProblemStatsRepository problemStatsRepository;
+
+    @Autowired
+    private ProblemSearchIndex problemSearchIndex;
     
     @Autowired
     private GeminiService geminiService;
     
     @Autowired
-    private Judge0Service judge0Service;
+    private CodeExecutor codeExecutor;
 
     // Manual problem creation
     @PostMapping
@@ -148,6 +171,8 @@ public class ProblemController {
             
             // Save the problem
             Problem savedProblem = problemRepository.save(problem);
+            problemCountCache.invalidate();
+            problemSearchIndex.update(savedProblem);
             
             // Fetch the problem again with all relationships loaded
             return ResponseEntity.ok(problemRepository.findByIdWithTags(savedProblem.getId()).get());
@@ -159,27 +184,79 @@ public class ProblemController {
         }
     }
 
+    /**
+     * Problems sorted by id, title or difficulty. With a {@code cursor} parameter (empty for the
+     * first page) pages are keyset-based and X-Next-Cursor carries the next one; otherwise
+     * {@code page} is an offset page number. X-Total-Count is cached and, in cursor mode,
+     * only sent when {@code includeTotal} is set.
+     */
     @GetMapping
-    public ResponseEntity<List<Problem>> getAllProblems(
+    public ResponseEntity<List<ProblemSummaryDTO>> getAllProblems(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean includeTotal) {
         
         try {
-            Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
-            Pageable pageable = PageRequest.of(page, size, sort);
-            Page<Problem> problems = problemRepository.findAll(pageable);
-            
-            return ResponseEntity.ok()
-                    .header("X-Total-Count", String.valueOf(problems.getTotalElements()))
-                    .body(problems.getContent());
+            ProblemSort sort = ProblemSort.from(sortBy);
+            Sort.Direction direction = Sort.Direction.fromString(sortDir);
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            List<ProblemSummaryDTO> problems;
+
+            if (cursor != null) {
+                ProblemCursor after = cursor.isEmpty() ? null : ProblemCursor.decode(cursor);
+                if (after != null && (!after.sortBy().equals(sort.toString())
+                        || after.descending() != direction.isDescending())) {
+                    return ResponseEntity.badRequest().build();
+                }
+                problems = problemRepository.findPageAfter(sort, direction.isDescending(), after, pageSize + 1);
+                if (problems.size() > pageSize) {
+                    problems = problems.subList(0, pageSize);
+                    ProblemSummaryDTO last = problems.get(pageSize - 1);
+                    response.header(NEXT_CURSOR_HEADER, new ProblemCursor(sort.toString(), direction.isDescending(),
+                            sort.valueOf(last), last.getId()).encode());
+                }
+            } else {
+                Sort order = Sort.by(direction, sort.getProperty()).and(Sort.by(direction, "id"));
+                problems = problemRepository.findSummaries(PageRequest.of(page, pageSize, order));
+            }
+
+            if (includeTotal != null ? includeTotal : cursor == null) {
+                response.header("X-Total-Count",
+                        String.valueOf(problemCountCache.count("all", problemRepository::count)));
+            }
+            return response.body(withTagsAndAcceptance(problems));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error getting all problems: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // Tags and acceptance stats for a page of summaries: one query each, whatever the page size
+    private List<ProblemSummaryDTO> withTagsAndAcceptance(List<ProblemSummaryDTO> problems) {
+        if (problems.isEmpty()) {
+            return problems;
+        }
+        Map<Long, ProblemSummaryDTO> byId = new HashMap<>();
+        problems.forEach(problem -> byId.put(problem.getId(), problem));
+
+        for (ProblemRepository.TagNameView tag : problemRepository.findTagNamesByProblemIdIn(byId.keySet())) {
+            byId.get(tag.getProblemId()).getTags().add(tag.getName());
+        }
+        for (ProblemStats stats : problemStatsRepository.findAllById(byId.keySet())) {
+            ProblemSummaryDTO problem = byId.get(stats.getProblemId());
+            problem.setTotalSubmissions(stats.getJudged());
+            problem.setAcceptedSubmissions(stats.getAccepted());
+            problem.setAcceptanceRate(stats.getAcceptanceRate());
+        }
+        return problems;
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Problem> getProblemById(@PathVariable Long id) {
         try {
@@ -194,18 +271,19 @@ public class ProblemController {
     
     // Get problems by tag
     @GetMapping("/tag/{tagName}")
-    public ResponseEntity<List<Problem>> getProblemsByTag(
+    public ResponseEntity<List<ProblemSummaryDTO>> getProblemsByTag(
             @PathVariable String tagName,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         try {
-            Pageable pageable = PageRequest.of(page, size);
-            Page<Problem> problems = problemRepository.findByTags(tagName, pageable);
+            Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+            List<ProblemSummaryDTO> problems = problemRepository.findSummariesByTagName(tagName, pageable);
+            long total = problemCountCache.count("tag:" + tagName, () -> problemRepository.countByTagName(tagName));
             
             return ResponseEntity.ok()
-                    .header("X-Total-Count", String.valueOf(problems.getTotalElements()))
-                    .body(problems.getContent());
+                    .header("X-Total-Count", String.valueOf(total))
+                    .body(withTagsAndAcceptance(problems));
         } catch (Exception e) {
             logger.error("Error getting problems by tag: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -214,24 +292,65 @@ public class ProblemController {
     
     // Get problems by difficulty
     @GetMapping("/difficulty/{difficulty}")
-    public ResponseEntity<List<Problem>> getProblemsByDifficulty(
+    public ResponseEntity<List<ProblemSummaryDTO>> getProblemsByDifficulty(
             @PathVariable String difficulty,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         try {
-            Pageable pageable = PageRequest.of(page, size);
-            Page<Problem> problems = problemRepository.findByDifficulty(difficulty, pageable);
+            Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+            List<ProblemSummaryDTO> problems = problemRepository.findSummariesByDifficulty(difficulty, pageable);
+            long total = problemCountCache.count("difficulty:" + difficulty,
+                    () -> problemRepository.countByDifficulty(difficulty));
             
             return ResponseEntity.ok()
-                    .header("X-Total-Count", String.valueOf(problems.getTotalElements()))
-                    .body(problems.getContent());
+                    .header("X-Total-Count", String.valueOf(total))
+                    .body(withTagsAndAcceptance(problems));
         } catch (Exception e) {
             logger.error("Error getting problems by difficulty: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    /**
+     * Ranked full-text search over title, description and tags; every query term also matches
+     * words it is a prefix of. Combines with difficulty and tag filters (all listed tags required).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ProblemSummaryDTO>> searchProblems(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        try {
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            List<ProblemSearchIndex.Hit> hits = problemSearchIndex.search(q, difficulty, tags);
+            int from = (int) Math.min((long) Math.max(page, 0) * pageSize, hits.size());
+            List<Long> ids = hits.subList(from, Math.min(from + pageSize, hits.size())).stream()
+                    .map(ProblemSearchIndex.Hit::problemId)
+                    .collect(Collectors.toList());
+
+            // Summaries come back in id order; put them in rank order, skipping rows deleted meanwhile
+            Map<Long, ProblemSummaryDTO> byId = new HashMap<>();
+            if (!ids.isEmpty()) {
+                problemRepository.findSummariesByIdIn(ids).forEach(problem -> byId.put(problem.getId(), problem));
+            }
+            List<ProblemSummaryDTO> problems = ids.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(hits.size()))
+                    .body(withTagsAndAcceptance(problems));
+        } catch (Exception e) {
+            logger.error("Error searching problems: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     // Get all tags
     @GetMapping("/tags")
     public ResponseEntity<List<Tag>> getAllTags() {
@@ -262,7 +381,7 @@ public class ProblemController {
     // Update problem
     @PutMapping("/{id}")
     @Transactional
-    public ResponseEntity<Problem> updateProblem(
+    public ResponseEntity<?> updateProblem(
             @PathVariable Long id, 
             @RequestBody Problem problemDetails, 
             @RequestParam(required = false) List<String> tags) {
@@ -270,6 +389,15 @@ public class ProblemController {
         try {
             logger.info("Updating problem with id: {}", id);
             
+            // Same required fields as createProblem
+            if (problemDetails.getTitle() == null || problemDetails.getTitle().trim().isEmpty()) {
+                return ResponseEntity.badRequest().body("Title is required");
+            }
+            
+            if (problemDetails.getDifficulty() == null || problemDetails.getDifficulty().trim().isEmpty()) {
+                return ResponseEntity.badRequest().body("Difficulty is required");
+            }
+            
             return problemRepository.findByIdWithTags(id)
                     .map(problem -> {
                         problem.setTitle(problemDetails.getTitle());
@@ -288,6 +416,23 @@ public class ProblemController {
                         if (problemDetails.getExplanation() != null && !problemDetails.getExplanation().trim().isEmpty()) {
                             problem.setExplanation(problemDetails.getExplanation());
                         }
+
+                        // Update output comparison settings if provided
+                        if (problemDetails.getOutputComparisonMode() != null) {
+                            problem.setOutputComparisonMode(problemDetails.getOutputComparisonMode());
+                        }
+
+                        if (problemDetails.getAbsoluteTolerance() != null) {
+                            problem.setAbsoluteTolerance(problemDetails.getAbsoluteTolerance());
+                        }
+
+                        if (problemDetails.getRelativeTolerance() != null) {
+                            problem.setRelativeTolerance(problemDetails.getRelativeTolerance());
+                        }
+
+                        // The contest window is replaced as a whole so it can also be cleared
+                        problem.setContestStartsAt(problemDetails.getContestStartsAt());
+                        problem.setContestEndsAt(problemDetails.getContestEndsAt());
                         
                         // Initialize code templates if null
                         if (problem.getCodeTemplates() == null) {
@@ -354,6 +499,8 @@ public class ProblemController {
                         
                         // Save the problem
                         Problem savedProblem = problemRepository.save(problem);
+                        problemCountCache.invalidate(); // difficulty and tags may have changed
+                        problemSearchIndex.update(savedProblem);
                         
                         // Fetch the problem again with tags loaded
                         return ResponseEntity.ok(problemRepository.findByIdWithTags(savedProblem.getId()).get());
@@ -374,6 +521,8 @@ public class ProblemController {
             return problemRepository.findById(id)
                     .map(problem -> {
                         problemRepository.delete(problem);
+                        problemCountCache.invalidate();
+                        problemSearchIndex.remove(id);
                         return ResponseEntity.ok().<Void>build();
                     })
                     .orElse(ResponseEntity.notFound().build());
@@ -426,7 +575,8 @@ public class ProblemController {
     public ResponseEntity<?> generateTestCases(
             @PathVariable Long id,
             @RequestParam int count) {
-        try {
+        // Reference solution runs are admin work and yield Judge0 to user submissions
+        try (EvaluationContext.Scope scope = EvaluationContext.open(EvaluationContext.BACKGROUND)) {
             logger.info("Generating {} test cases for problem with id: {}", count, id);
             
             // Validate count
@@ -458,7 +608,8 @@ public class ProblemController {
     @PostMapping("/{id}/testcases")
     @Transactional
     public ResponseEntity<?> saveTestCases(@PathVariable Long id, @RequestBody List<TestCase> testCases) {
-        try {
+        // Validation runs are admin work and yield Judge0 to user submissions
+        try (EvaluationContext.Scope scope = EvaluationContext.open(EvaluationContext.BACKGROUND)) {
             logger.info("Saving {} test cases for problem with id: {}", testCases.size(), id);
 
             // --- 1. Fetch problem with validation ---
@@ -491,6 +642,7 @@ public class ProblemController {
             if (problem.getSolution() != null && !problem.getSolution().trim().isEmpty()) {
                 logger.info("Validating test cases using Judge0...");
 
+                OutputComparator outputComparator = OutputComparator.forProblem(problem);
                 int validatedCount = 0;
                 for (TestCase testCase : testCases) {
                     try {
@@ -500,8 +652,8 @@ public class ProblemController {
                             break;
                         }
 
-                        // Use the refactored Judge0Service.executeCode method
-                        Judge0Response response = judge0Service.executeCode(
+                        // Run the reference solution on the configured executor backend
+                        Judge0Response response = codeExecutor.executeCode(
                                 problem.getSolution(),
                                 problem.getReferenceLanguage() != null ? problem.getReferenceLanguage() : "Java",
                                 testCase.getInput()
@@ -511,7 +663,7 @@ public class ProblemController {
                             String actualOutput = response.getStdout();
                             if (actualOutput == null) actualOutput = "";
 
-                            if (!actualOutput.trim().equals(testCase.getExpectedOutput().trim())) {
+                            if (!outputComparator.matches(actualOutput, testCase.getExpectedOutput())) {
                                 logger.warn("Test case failed validation: expected [{}] but got [{}] for input [{}]",
                                         testCase.getExpectedOutput(), actualOutput, testCase.getInput());
                                 testCase.setHidden(true); // mark invalid as hidden
@@ -0,0 +1,91 @@
+package SD_Tech.LeetAI.Controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import SD_Tech.LeetAI.Entity.ProblemStats;
+import SD_Tech.LeetAI.Entity.UserLanguageStats;
+import SD_Tech.LeetAI.Entity.UserProblemStats;
+import SD_Tech.LeetAI.Entity.UserStats;
+import SD_Tech.LeetAI.Repository.ProblemStatsRepository;
+import SD_Tech.LeetAI.Repository.UserLanguageStatsRepository;
+import SD_Tech.LeetAI.Repository.UserProblemStatsRepository;
+import SD_Tech.LeetAI.Repository.UserStatsRepository;
+import SD_Tech.LeetAI.Service.StatsService;
+
+/**
+ * Dashboard counters, read from the aggregate tables maintained by StatsService. Users and
+ * problems without judged submissions get all-zero stats.
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsController.class);
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private UserLanguageStatsRepository userLanguageStatsRepository;
+
+    @Autowired
+    private UserProblemStatsRepository userProblemStatsRepository;
+
+    @Autowired
+    private ProblemStatsRepository problemStatsRepository;
+
+    @Autowired
+    private StatsService statsService;
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<UserStats> getUserStats(@PathVariable Long userId) {
+        return ResponseEntity.ok(userStatsRepository.findById(userId)
+                .orElseGet(() -> new UserStats(userId, 0, 0, 0, 0)));
+    }
+
+    @GetMapping("/users/{userId}/languages")
+    public ResponseEntity<List<UserLanguageStats>> getUserLanguageStats(@PathVariable Long userId) {
+        return ResponseEntity.ok(userLanguageStatsRepository.findByUserIdOrderByJudgedDesc(userId));
+    }
+
+    @GetMapping("/users/{userId}/solved")
+    public ResponseEntity<List<UserProblemStats>> getSolvedProblems(@PathVariable Long userId) {
+        return ResponseEntity.ok(userProblemStatsRepository.findByUserIdAndFirstSolvedAtIsNotNullOrderByFirstSolvedAtDesc(userId));
+    }
+
+    @GetMapping("/users/{userId}/problems/{problemId}")
+    public ResponseEntity<UserProblemStats> getUserProblemStats(@PathVariable Long userId, @PathVariable Long problemId) {
+        return ResponseEntity.ok(userProblemStatsRepository.findById(new UserProblemStats.Key(userId, problemId))
+                .orElseGet(() -> new UserProblemStats(userId, problemId, 0, 0, null, null, null)));
+    }
+
+    @GetMapping("/problems/{problemId}")
+    public ResponseEntity<ProblemStats> getProblemStats(@PathVariable Long problemId) {
+        return ResponseEntity.ok(problemStatsRepository.findById(problemId)
+                .orElseGet(() -> new ProblemStats(problemId, 0, 0, 0, 0)));
+    }
+
+    // Recompute all stats from the submissions table (backfill or repair)
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        try {
+            return ResponseEntity.ok(Map.of("userProblemPairs", statsService.rebuild()));
+        } catch (Exception e) {
+            logger.error("Error rebuilding stats: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to rebuild stats: " + e.getMessage());
+        }
+    }
+}
@@ -3,29 +3,44 @@ package SD_Tech.LeetAI.Controller;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import SD_Tech.LeetAI.DTO.SubmissionCursor;
 import SD_Tech.LeetAI.DTO.SubmissionDetailsDTO;
 import SD_Tech.LeetAI.DTO.SubmissionRequestDTO;
+import SD_Tech.LeetAI.DTO.SubmissionSummaryDTO;
 import SD_Tech.LeetAI.DTO.TestCaseResultDTO;
+import SD_Tech.LeetAI.Entity.EvaluationLane;
 import SD_Tech.LeetAI.Entity.Problem;
 import SD_Tech.LeetAI.Entity.Submission;
 import SD_Tech.LeetAI.Entity.SubmissionTestCaseResult;
@@ -33,45 +48,69 @@ import SD_Tech.LeetAI.Entity.TestCase;
 import SD_Tech.LeetAI.Entity.User;
 import SD_Tech.LeetAI.Repository.ProblemRepository;
 import SD_Tech.LeetAI.Repository.SubmissionRepository;
+import SD_Tech.LeetAI.Repository.SubmissionTestCaseResultRepository;
 import SD_Tech.LeetAI.Repository.TestCaseRepository;
 import SD_Tech.LeetAI.Repository.UserRepository;
+import SD_Tech.LeetAI.Service.EvaluationJobService;
+import SD_Tech.LeetAI.Service.EvaluationQueueFullException;
 import SD_Tech.LeetAI.Service.GeminiService;
-import SD_Tech.LeetAI.Service.Judge0Service;
-import SD_Tech.LeetAI.DTO.Judge0BatchSubmissionRequest;
-import SD_Tech.LeetAI.DTO.Judge0Response;
-import SD_Tech.LeetAI.DTO.Judge0BatchResponse;
+import SD_Tech.LeetAI.Service.IdempotencyKeyReusedException;
+import SD_Tech.LeetAI.Service.SubmissionDedupService;
+import SD_Tech.LeetAI.Service.SubmissionEventPublisher;
+import SD_Tech.LeetAI.Service.TestCaseResultCodec;
+import SD_Tech.LeetAI.Service.VerdictWriteBehind;
 
 @RestController
 @RequestMapping("/api/submissions")
 @Transactional(readOnly = true)
 public class SubmissionController {
 
-    @Autowired
-    private SubmissionRepository submissionRepository;
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionController.class);
 
     @Autowired
-    private TestCaseRepository testCaseRepository;
+    private SubmissionRepository submissionRepository;
 
     @Autowired
     private GeminiService geminiService;
     
-    @Autowired
-    private Judge0Service judge0Service;
-    
     @Autowired
     private ProblemRepository problemRepository;
     
     @Autowired
     private UserRepository userRepository;
-    
-    @Value("${app.demo.mock:false}")
-    private boolean appDemoMock;
+
+    @Autowired
+    private EvaluationJobService evaluationJobService;
+
+    @Autowired
+    private SubmissionEventPublisher submissionEventPublisher;
+
+    @Autowired
+    private TestCaseRepository testCaseRepository;
+
+    @Autowired
+    private SubmissionDedupService submissionDedupService;
+
+    @Autowired
+    private SubmissionTestCaseResultRepository submissionTestCaseResultRepository;
+
+    @Autowired
+    private VerdictWriteBehind verdictWriteBehind;
+
+    // Set on responses that return an earlier submission instead of creating one
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    // Cursor of the next page of a submission listing, absent on the last page
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_PAGE_SIZE = 100;
     
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Runs outside the class-level transaction; the insert gets its own, see SubmissionDedupService
     @PostMapping
-    @Transactional(readOnly = false)
-    public ResponseEntity<?> submitCode(@RequestBody SubmissionRequestDTO submissionRequest) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<?> submitCode(@RequestBody SubmissionRequestDTO submissionRequest,
+                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             if (submissionRequest.getCode() == null || submissionRequest.getCode().trim().isEmpty()) {
                 return ResponseEntity.badRequest().body("Code cannot be empty");
@@ -84,6 +123,20 @@ public class SubmissionController {
             if (submissionRequest.getUserId() == null) {
                 return ResponseEntity.badRequest().body("User ID is required");
             }
+
+            // A retry or double click gets the submission it already created
+            String scopedIdempotencyKey = submissionDedupService.idempotencyKey(submissionRequest.getUserId(), idempotencyKey);
+            String payloadHash = submissionDedupService.payloadHash(scopedIdempotencyKey,
+                    submissionRequest.getProblemId(), submissionRequest.getLanguage(), submissionRequest.getCode());
+            String dedupKey = submissionDedupService.dedupKey(submissionRequest.getUserId(),
+                    submissionRequest.getProblemId(), submissionRequest.getLanguage(), submissionRequest.getCode());
+            Optional<Submission> existing = submissionDedupService.findExisting(scopedIdempotencyKey, payloadHash, dedupKey);
+            if (existing.isPresent()) {
+                return ResponseEntity.ok().header(REPLAYED_HEADER, "true").body(withQueueStatus(existing.get()));
+            }
+
+            // Shed load before doing any work when the evaluation queue is full
+            evaluationJobService.admit();
             
             Problem problem = problemRepository.findById(submissionRequest.getProblemId())
                     .orElseThrow(() -> new IllegalArgumentException("Problem not found with id: " + submissionRequest.getProblemId()));
@@ -101,21 +154,27 @@ public class SubmissionController {
             submission.setRuntimeMs(0L);
             submission.setTotalTestCases(0);
             submission.setPassedTestCases(0);
+            submission.setIdempotencyKey(scopedIdempotencyKey);
+            submission.setIdempotencyPayloadHash(payloadHash);
+            submission.setDedupKey(dedupKey);
+
+            // Queue evaluation durably; committed together with the submission
+            // The lane follows the problem's contest window, never the client
+            EvaluationLane lane = problem.isContestOpenAt(submission.getSubmissionTime())
+                    ? EvaluationLane.CONTEST : EvaluationLane.PRACTICE;
+            Submission savedSubmission = submissionDedupService.insertOnce(submission,
+                    inserted -> evaluationJobService.enqueue(inserted.getId(), user.getId(), lane));
+            if (savedSubmission != submission) {
+                return ResponseEntity.ok().header(REPLAYED_HEADER, "true").body(withQueueStatus(savedSubmission));
+            }
 
-            Submission savedSubmission = submissionRepository.save(submission);
-
-            // Start asynchronous AI evaluation
-            CompletableFuture.runAsync(() -> {
-                try {
-                    evaluateSubmissionWithAI(savedSubmission);
-                } catch (Exception e) {
-                    savedSubmission.setStatus("ERROR");
-                    savedSubmission.setFeedback("AI evaluation failed: " + e.getMessage());
-                    submissionRepository.save(savedSubmission);
-                }
-            });
-
-            return ResponseEntity.ok(savedSubmission);
+            return ResponseEntity.ok(withQueueStatus(savedSubmission));
+        } catch (EvaluationQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                    .body(e.getMessage());
+        } catch (IdempotencyKeyReusedException e) {
+            return ResponseEntity.unprocessableEntity().body(e.getMessage());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -125,178 +184,17 @@ public class SubmissionController {
         }
     }
 
-    @Transactional(readOnly = false)
-    private void evaluateSubmissionWithAI(Submission submission) {
-        if (submission.getProblem() == null) {
-            throw new IllegalStateException("Submission must have a problem associated");
-        }
-
-        List<TestCase> testCases = testCaseRepository.findByProblemId(submission.getProblem().getId());
-
-        if (testCases.isEmpty()) {
-            throw new IllegalStateException("No test cases found for problem: " + submission.getProblem().getId());
-        }
-
-        // Demo/mock mode: simulate Judge0 responses locally without calling external Judge0
-        if (appDemoMock) {
-            List<SubmissionTestCaseResult> simulatedResults = new ArrayList<>();
-            long totalRuntime = 0L;
-            for (TestCase tc : testCases) {
-                SubmissionTestCaseResult res = new SubmissionTestCaseResult();
-                res.setSubmission(submission);
-                res.setTestCase(tc);
-                res.setPassed(true);
-                String expected = tc.getExpectedOutput() != null ? tc.getExpectedOutput().trim() : "";
-                res.setActualOutput(expected);
-                res.setRuntimeMs(10L); // tiny simulated runtime
-                res.setError(null);
-                simulatedResults.add(res);
-                totalRuntime += res.getRuntimeMs();
-            }
-
-            int passedCount = simulatedResults.size();
-            int totalCount = simulatedResults.size();
-
-            submission.setStatus("PASSED");
-            submission.setFeedback("Demo mode: all test cases marked as passed (simulated)");
-            submission.setPassedTestCases(passedCount);
-            submission.setTotalTestCases(totalCount);
-            submission.setRuntimeMs(totalRuntime);
-            submission.setTestCaseResults(simulatedResults);
-            try {
-                List<TestCaseResultDTO> dtoList = simulatedResults.stream().map(r -> {
-                    TestCaseResultDTO d = new TestCaseResultDTO();
-                    d.setTestCaseId(r.getTestCase() != null ? r.getTestCase().getId() : null);
-                    d.setInput(r.getTestCase() != null ? r.getTestCase().getInput() : null);
-                    d.setExpectedOutput(r.getTestCase() != null ? r.getTestCase().getExpectedOutput() : null);
-                    d.setActualOutput(r.getActualOutput());
-                    d.setPassed(r.isPassed());
-                    d.setRuntimeMs(r.getRuntimeMs());
-                    d.setError(r.getError());
-                    return d;
-                }).collect(Collectors.toList());
-
-                submission.setTestCaseResultsJson(objectMapper.writeValueAsString(dtoList));
-            } catch (JsonProcessingException e) {
-                e.printStackTrace();
-            }
-            submissionRepository.save(submission);
-            return;
-        }
-
-        try {
-            // Prepare batch requests for Judge0
-            int languageId = judge0Service.getLanguageId(submission.getLanguage());
-
-            List<Judge0BatchSubmissionRequest> batchRequests = new ArrayList<>();
-            for (TestCase tc : testCases) {
-                Judge0BatchSubmissionRequest req = new Judge0BatchSubmissionRequest(String.valueOf(languageId), submission.getCode(), tc.getInput());
-                req.setExpected_output(tc.getExpectedOutput());
-                batchRequests.add(req);
-            }
-
-            // Submit batch and poll for results
-            Judge0BatchResponse batchResponse = judge0Service.submitBatch(batchRequests);
-
-            List<String> tokens = new ArrayList<>();
-            if (batchResponse != null && batchResponse.getSubmissions() != null) {
-                for (Judge0Response r : batchResponse.getSubmissions()) {
-                    if (r != null && r.getToken() != null) tokens.add(r.getToken());
-                }
-            }
-
-            List<Judge0Response> results = judge0Service.pollBatchResults(tokens);
-
-            // Map results back to test case results
-            List<SubmissionTestCaseResult> testCaseResults = new ArrayList<>();
-            int idx = 0;
-            long totalRuntime = 0L;
-            for (Judge0Response jr : results) {
-                SubmissionTestCaseResult res = new SubmissionTestCaseResult();
-                res.setSubmission(submission);
-                TestCase tc = testCases.get(Math.min(idx, testCases.size() - 1));
-                res.setTestCase(tc);
-
-                boolean passed = jr.getStatus() != null && jr.getStatus().getId() == 3; // 3 == Accepted
-                res.setPassed(passed);
-
-                String actualOutput = jr.getStdout();
-                if ((actualOutput == null || actualOutput.isEmpty()) && jr.getStderr() != null) {
-                    actualOutput = jr.getStderr();
-                }
-                if ((actualOutput == null || actualOutput.isEmpty()) && jr.getCompile_output() != null) {
-                    actualOutput = jr.getCompile_output();
-                }
-                res.setActualOutput(actualOutput != null ? actualOutput.trim() : "");
-
-                res.setRuntimeMs(jr.getTime());
-                totalRuntime += jr.getTime();
-
-                // Set error details when appropriate
-                if (jr.getStatus() != null && jr.getStatus().getId() == 6) { // Compilation error
-                    res.setError(jr.getCompile_output());
-                } else if (jr.getStatus() != null && jr.getStatus().getId() != 3) {
-                    // Non-accepted and non-compilation statuses
-                    res.setError(jr.getStderr() != null ? jr.getStderr() : null);
-                } else {
-                    res.setError(null);
-                }
-
-                testCaseResults.add(res);
-                idx++;
-            }
-
-            int passedCount = (int) testCaseResults.stream().filter(SubmissionTestCaseResult::isPassed).count();
-            int totalCount = testCaseResults.size();
-
-            submission.setStatus(passedCount == totalCount ? "PASSED" : "FAILED");
-            // Build a concise feedback summary
-            StringBuilder feedback = new StringBuilder();
-            feedback.append("Judge0 evaluation results:\n");
-            for (int i = 0; i < testCaseResults.size(); i++) {
-                SubmissionTestCaseResult r = testCaseResults.get(i);
-                feedback.append(String.format("Test %d: %s\n", i + 1, r.isPassed() ? "PASS" : "FAIL"));
-                if (r.getError() != null && !r.getError().isEmpty()) {
-                    feedback.append("Error: ").append(r.getError()).append("\n");
-                }
-            }
-
-            submission.setFeedback(feedback.toString());
-            submission.setPassedTestCases(passedCount);
-            submission.setTotalTestCases(totalCount);
-            submission.setRuntimeMs(totalRuntime);
-
-            submission.setTestCaseResults(testCaseResults);
-
-            try {
-                // Serialize a lightweight DTO list instead of full entities to avoid
-                // jackson problems with LocalDateTime and circular references.
-                List<TestCaseResultDTO> dtoList = testCaseResults.stream().map(r -> {
-                    TestCaseResultDTO d = new TestCaseResultDTO();
-                    d.setTestCaseId(r.getTestCase() != null ? r.getTestCase().getId() : null);
-                    d.setInput(r.getTestCase() != null ? r.getTestCase().getInput() : null);
-                    d.setExpectedOutput(r.getTestCase() != null ? r.getTestCase().getExpectedOutput() : null);
-                    d.setActualOutput(r.getActualOutput());
-                    d.setPassed(r.isPassed());
-                    d.setRuntimeMs(r.getRuntimeMs());
-                    d.setError(r.getError());
-                    return d;
-                }).collect(Collectors.toList());
-
-                submission.setTestCaseResultsJson(objectMapper.writeValueAsString(dtoList));
-            } catch (JsonProcessingException e) {
-                e.printStackTrace();
-            }
-
-            submissionRepository.save(submission);
-        } catch (Exception e) {
-            // If Judge0 fails, persist an error state and include message
-            submission.setStatus("ERROR");
-            submission.setFeedback("Judge0 evaluation failed: " + e.getMessage());
-            submissionRepository.save(submission);
+    // Queue position and ETA for a submission that is still waiting for a worker
+    private Submission withQueueStatus(Submission submission) {
+        if ("PENDING".equals(submission.getStatus())) {
+            evaluationJobService.queueStatus(submission.getId()).ifPresent(queue -> {
+                submission.setQueuePosition(queue.position());
+                submission.setEstimatedWaitSeconds(queue.estimatedWaitSeconds());
+            });
         }
+        return submission;
     }
-    
+
     private List<SubmissionTestCaseResult> parseTestCaseResultsFromAIResponse(String aiResponse, List<TestCase> testCases, Submission submission) {
         List<SubmissionTestCaseResult> results = new ArrayList<>();
         
@@ -402,41 +300,52 @@ public class SubmissionController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SubmissionDetailsDTO>> getAllSubmissions() {
-        try {
-            List<Submission> submissions = submissionRepository.findAll();
-            List<SubmissionDetailsDTO> dtos = submissions.stream()
-                    .map(this::convertToSubmissionDetailsDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(dtos);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+    public ResponseEntity<List<SubmissionSummaryDTO>> getAllSubmissions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return listPage(cursor, limit, (after, page) ->
+                submissionRepository.findSummariesBefore(after.submissionTime(), after.id(), page));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<SubmissionDetailsDTO>> getSubmissionsByUser(@PathVariable Long userId) {
-        try {
-            List<Submission> submissions = submissionRepository.findByUserId(userId);
-            List<SubmissionDetailsDTO> dtos = submissions.stream()
-                    .map(this::convertToSubmissionDetailsDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(dtos);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+    public ResponseEntity<List<SubmissionSummaryDTO>> getSubmissionsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return listPage(cursor, limit, (after, page) ->
+                submissionRepository.findSummariesByUserBefore(userId, after.submissionTime(), after.id(), page));
     }
 
     @GetMapping("/problem/{problemId}")
-    public ResponseEntity<List<SubmissionDetailsDTO>> getSubmissionsByProblem(@PathVariable Long problemId) {
+    public ResponseEntity<List<SubmissionSummaryDTO>> getSubmissionsByProblem(
+            @PathVariable Long problemId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return listPage(cursor, limit, (after, page) ->
+                submissionRepository.findSummariesByProblemBefore(problemId, after.submissionTime(), after.id(), page));
+    }
+
+    /**
+     * One newest-first page of summaries. One extra row is fetched to tell whether another page
+     * follows; if so its cursor is returned in the X-Next-Cursor header.
+     */
+    private ResponseEntity<List<SubmissionSummaryDTO>> listPage(
+            String cursor, int limit,
+            BiFunction<SubmissionCursor, Pageable, List<SubmissionSummaryDTO>> query) {
         try {
-            List<Submission> submissions = submissionRepository.findByProblemId(problemId);
-            List<SubmissionDetailsDTO> dtos = submissions.stream()
-                    .map(this::convertToSubmissionDetailsDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(dtos);
+            SubmissionCursor after = SubmissionCursor.decode(cursor);
+            int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            List<SubmissionSummaryDTO> rows = query.apply(after, PageRequest.of(0, size + 1));
+            if (rows.size() <= size) {
+                return ResponseEntity.ok(rows);
+            }
+            List<SubmissionSummaryDTO> page = rows.subList(0, size);
+            SubmissionSummaryDTO last = page.get(size - 1);
+            return ResponseEntity.ok()
+                    .header(NEXT_CURSOR_HEADER, new SubmissionCursor(last.getSubmissionTime(), last.getId()).encode())
+                    .body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -446,8 +355,20 @@ public class SubmissionController {
     @GetMapping("/{id}")
     public ResponseEntity<SubmissionDetailsDTO> getSubmissionById(@PathVariable Long id) {
         try {
-            return submissionRepository.findById(id)
-                    .map(submission -> ResponseEntity.ok(convertToSubmissionDetailsDTO(submission)))
+            return submissionRepository.findDetailsById(id)
+                    .map(submission -> {
+                        // A verdict still waiting in the write-behind is newer than the row;
+                        // the read-only transaction never writes the entity back
+                        verdictWriteBehind.applyUnwritten(submission);
+                        SubmissionDetailsDTO dto = convertToSubmissionDetailsDTO(submission);
+                        if ("PENDING".equals(submission.getStatus())) {
+                            evaluationJobService.queueStatus(id).ifPresent(queue -> {
+                                dto.setQueuePosition(queue.position());
+                                dto.setEstimatedWaitSeconds(queue.estimatedWaitSeconds());
+                            });
+                        }
+                        return ResponseEntity.ok(dto);
+                    })
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             e.printStackTrace();
@@ -455,6 +376,12 @@ public class SubmissionController {
         }
     }
 
+    // Server-Sent Events: status transitions, each test case result as it arrives, then the verdict
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSubmissionEvents(@PathVariable Long id) {
+        return submissionEventPublisher.subscribe(id);
+    }
+
     private SubmissionDetailsDTO convertToSubmissionDetailsDTO(Submission submission) {
         SubmissionDetailsDTO dto = new SubmissionDetailsDTO();
         dto.setId(submission.getId());
@@ -475,24 +402,36 @@ public class SubmissionController {
         dto.setPassedTestCases(passed);
         dto.setFailedTestCases(Math.max(0, total - passed));       
         
-        // Convert test case results to DTOs
-        if (submission.getTestCaseResults() != null && !submission.getTestCaseResults().isEmpty()) {
-            List<TestCaseResultDTO> testCaseResultDTOs = submission.getTestCaseResults().stream()
+        // Decode the compact results from the submission row; submissions evaluated before it
+        // existed fall back to their result rows and finally the legacy JSON column
+        if (submission.getTestCaseResultsBlob() != null) {
+            dto.setTestCaseResults(decodeTestCaseResults(submission));
+            return dto;
+        }
+
+        List<SubmissionTestCaseResult> results =
+                submissionTestCaseResultRepository.findWithTestCaseBySubmissionId(submission.getId());
+        if (!results.isEmpty()) {
+            List<TestCaseResultDTO> testCaseResultDTOs = results.stream()
                 .map(result -> {
                     TestCaseResultDTO resultDTO = new TestCaseResultDTO();
-                    resultDTO.setTestCaseId(result.getTestCase().getId());
-                    resultDTO.setInput(result.getTestCase().getInput());
-                    resultDTO.setExpectedOutput(result.getTestCase().getExpectedOutput());
+                    if (result.getTestCase() != null) {
+                        resultDTO.setTestCaseId(result.getTestCase().getId());
+                        resultDTO.setInput(result.getTestCase().getInput());
+                        resultDTO.setExpectedOutput(result.getTestCase().getExpectedOutput());
+                    }
                     resultDTO.setActualOutput(result.getActualOutput());
                     resultDTO.setPassed(result.isPassed());
+                    resultDTO.setSkipped(result.isSkipped());
                     resultDTO.setRuntimeMs(result.getRuntimeMs());
+                    resultDTO.setMemoryKb(result.getMemoryKb());
                     resultDTO.setError(result.getError());
                     return resultDTO;
                 })
                 .collect(Collectors.toList());
             dto.setTestCaseResults(testCaseResultDTOs);
         } else if (submission.getTestCaseResultsJson() != null && !submission.getTestCaseResultsJson().isEmpty()) {
-            // Fallback to JSON if the relationship isn't loaded
+            // Fallback to the legacy JSON column
             try {
                 // Our stored JSON is a list of TestCaseResultDTO (lightweight), try to read that first
                 List<TestCaseResultDTO> testCaseResultDTOs = objectMapper.readValue(
@@ -507,4 +446,29 @@ public class SubmissionController {
         
         return dto;
     }
-}
\ No newline at end of file
+
+    // Input and expected output are not stored with the results; read them from the test cases
+    private List<TestCaseResultDTO> decodeTestCaseResults(Submission submission) {
+        List<TestCaseResultDTO> decoded;
+        try {
+            decoded = TestCaseResultCodec.decode(submission.getTestCaseResultsBlob());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unreadable test case results on submission {}: {}", submission.getId(), e.getMessage());
+            return null;
+        }
+        List<Long> testCaseIds = decoded.stream()
+                .map(TestCaseResultDTO::getTestCaseId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Map<Long, TestCase> testCases = testCaseRepository.findAllById(testCaseIds).stream()
+                .collect(Collectors.toMap(TestCase::getId, Function.identity()));
+        for (TestCaseResultDTO result : decoded) {
+            TestCase testCase = testCases.get(result.getTestCaseId());
+            if (testCase != null) {
+                result.setInput(testCase.getInput());
+                result.setExpectedOutput(testCase.getExpectedOutput());
+            }
+        }
+        return decoded;
+    }
+}
@@ -7,6 +7,7 @@ public class Judge0BatchSubmissionRequest {
     private String expected_output;
     private int cpu_time_limit = 2; // Default CPU time limit
     private int memory_limit = 128; // Default memory limit in MB
+    private String callback_url; // Judge0 PUTs the finished submission here when set
 
     // Default constructor
     public Judge0BatchSubmissionRequest() {}
@@ -66,4 +67,12 @@ public class Judge0BatchSubmissionRequest {
     public void setMemory_limit(int memory_limit) {
         this.memory_limit = memory_limit;
     }
+
+    public String getCallback_url() {
+        return callback_url;
+    }
+
+    public void setCallback_url(String callback_url) {
+        this.callback_url = callback_url;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package SD_Tech.LeetAI.DTO;
 
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.databind.JsonNode;
+
 public class Judge0Response {
     private String token;
     private Status status;
@@ -57,6 +60,18 @@ public class Judge0Response {
     public void setTime(long time) {
         this.time = time;
     }
+
+    // Judge0 reports time as a decimal string of seconds ("0.012"); we keep milliseconds
+    @JsonSetter("time")
+    public void setTimeFromJson(JsonNode time) {
+        if (time == null || time.isNull()) {
+            this.time = 0L;
+        } else if (time.isTextual()) {
+            this.time = time.asText().isBlank() ? 0L : Math.round(Double.parseDouble(time.asText()) * 1000);
+        } else {
+            this.time = time.asLong();
+        }
+    }
     
     public long getMemory() {
         return memory;
@@ -0,0 +1,34 @@
+package SD_Tech.LeetAI.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a problem listing: the sort it belongs to and the (sort value, id) of the
+ * last problem returned. Exchanged with clients as an opaque URL-safe string.
+ */
+public record ProblemCursor(String sortBy, boolean descending, String value, Long id) {
+
+    public String encode() {
+        // The value goes last because it is free text and may contain the separator. It is only
+        // null for the id sort: title and difficulty are NOT NULL columns
+        String raw = sortBy + "|" + (descending ? "desc" : "asc") + "|" + id + "|" + (value != null ? value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode()}
+     */
+    public static ProblemCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ProblemCursor(parts[0], parts[1].equals("desc"), parts[3], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
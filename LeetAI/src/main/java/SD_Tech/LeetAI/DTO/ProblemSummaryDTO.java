@@ -0,0 +1,84 @@
+package SD_Tech.LeetAI.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Problem list entry: no statement, examples or solutions. Id, title and difficulty come from
+ * the listing query; tags and acceptance stats are filled in per page afterwards.
+ */
+public class ProblemSummaryDTO {
+    private Long id;
+    private String title;
+    private String difficulty;
+    private List<String> tags = new ArrayList<>();
+    private long totalSubmissions;
+    private long acceptedSubmissions;
+    private Double acceptanceRate;
+
+    public ProblemSummaryDTO() {
+    }
+
+    public ProblemSummaryDTO(Long id, String title, String difficulty) {
+        this.id = id;
+        this.title = title;
+        this.difficulty = difficulty;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public long getTotalSubmissions() {
+        return totalSubmissions;
+    }
+
+    public void setTotalSubmissions(long totalSubmissions) {
+        this.totalSubmissions = totalSubmissions;
+    }
+
+    public long getAcceptedSubmissions() {
+        return acceptedSubmissions;
+    }
+
+    public void setAcceptedSubmissions(long acceptedSubmissions) {
+        this.acceptedSubmissions = acceptedSubmissions;
+    }
+
+    // Accepted share of judged submissions, null until there is one
+    public Double getAcceptanceRate() {
+        return acceptanceRate;
+    }
+
+    public void setAcceptanceRate(Double acceptanceRate) {
+        this.acceptanceRate = acceptanceRate;
+    }
+}
@@ -18,6 +18,10 @@ public class SubmissionDetailsDTO {
     private Integer totalTestCases;
     private Integer passedTestCases;
     private Integer failedTestCases;
+
+    // Set while the evaluation is queued
+    private Long queuePosition;
+    private Long estimatedWaitSeconds;
     
     // New field for detailed test case results
     private List<TestCaseResultDTO> testCaseResults;
@@ -142,4 +146,20 @@ public class SubmissionDetailsDTO {
     public void setTestCaseResults(List<TestCaseResultDTO> testCaseResults) {
         this.testCaseResults = testCaseResults;
     }
-}
\ No newline at end of file
+
+    public Long getQueuePosition() {
+        return queuePosition;
+    }
+
+    public void setQueuePosition(Long queuePosition) {
+        this.queuePosition = queuePosition;
+    }
+
+    public Long getEstimatedWaitSeconds() {
+        return estimatedWaitSeconds;
+    }
+
+    public void setEstimatedWaitSeconds(Long estimatedWaitSeconds) {
+        this.estimatedWaitSeconds = estimatedWaitSeconds;
+    }
+}
@@ -39,4 +39,4 @@ public class SubmissionRequestDTO {
     public void setProblemId(Long problemId) {
         this.problemId = problemId;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package SD_Tech.LeetAI.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Submission list entry: status and counters without code, feedback or test case results.
+ * Built directly by the listing queries in SubmissionRepository.
+ */
+public class SubmissionSummaryDTO {
+    private Long id;
+    private Long userId;
+    private String userName;
+    private Long problemId;
+    private String problemTitle;
+    private String language;
+    private String status;
+    private Long runtimeMs;
+    private LocalDateTime submissionTime;
+    private Integer totalTestCases;
+    private Integer passedTestCases;
+
+    public SubmissionSummaryDTO() {
+    }
+
+    public SubmissionSummaryDTO(Long id, Long userId, String userName, Long problemId, String problemTitle,
+                                String language, String status, Long runtimeMs, LocalDateTime submissionTime,
+                                Integer totalTestCases, Integer passedTestCases) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.problemId = problemId;
+        this.problemTitle = problemTitle;
+        this.language = language;
+        this.status = status;
+        this.runtimeMs = runtimeMs;
+        this.submissionTime = submissionTime;
+        this.totalTestCases = totalTestCases;
+        this.passedTestCases = passedTestCases;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public Long getProblemId() {
+        return problemId;
+    }
+
+    public void setProblemId(Long problemId) {
+        this.problemId = problemId;
+    }
+
+    public String getProblemTitle() {
+        return problemTitle;
+    }
+
+    public void setProblemTitle(String problemTitle) {
+        this.problemTitle = problemTitle;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getRuntimeMs() {
+        return runtimeMs;
+    }
+
+    public void setRuntimeMs(Long runtimeMs) {
+        this.runtimeMs = runtimeMs;
+    }
+
+    public LocalDateTime getSubmissionTime() {
+        return submissionTime;
+    }
+
+    public void setSubmissionTime(LocalDateTime submissionTime) {
+        this.submissionTime = submissionTime;
+    }
+
+    public Integer getTotalTestCases() {
+        return totalTestCases;
+    }
+
+    public void setTotalTestCases(Integer totalTestCases) {
+        this.totalTestCases = totalTestCases;
+    }
+
+    public Integer getPassedTestCases() {
+        return passedTestCases;
+    }
+
+    public void setPassedTestCases(Integer passedTestCases) {
+        this.passedTestCases = passedTestCases;
+    }
+}
@@ -6,7 +6,9 @@ public class TestCaseResultDTO {
     private String expectedOutput;
     private String actualOutput;
     private boolean passed;
+    private boolean skipped; // not run because an earlier stage failed
     private Long runtimeMs;
+    private Long memoryKb;
     private String error;
 
     // Getters and setters
@@ -50,6 +52,14 @@ public class TestCaseResultDTO {
         this.passed = passed;
     }
 
+    public boolean isSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(boolean skipped) {
+        this.skipped = skipped;
+    }
+
     public Long getRuntimeMs() {
         return runtimeMs;
     }
@@ -58,6 +68,14 @@ public class TestCaseResultDTO {
         this.runtimeMs = runtimeMs;
     }
 
+    public Long getMemoryKb() {
+        return memoryKb;
+    }
+
+    public void setMemoryKb(Long memoryKb) {
+        this.memoryKb = memoryKb;
+    }
+
     public String getError() {
         return error;
     }
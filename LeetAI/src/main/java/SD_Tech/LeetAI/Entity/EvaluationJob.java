@@ -0,0 +1,70 @@
+package SD_Tech.LeetAI.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Durable unit of evaluation work. One row per submission; workers claim rows with a
+ * time-limited lease so a crashed node's jobs are picked up again.
+ */
+@Entity
+@Table(name = "evaluation_jobs", indexes = {
+        @Index(name = "idx_evaluation_jobs_status_available", columnList = "status, availableAt"),
+        @Index(name = "idx_evaluation_jobs_status_lease", columnList = "status, leaseExpiresAt"),
+        @Index(name = "idx_evaluation_jobs_user_status", columnList = "userId, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EvaluationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long submissionId;
+
+    // Submitting user, for the per-user in-flight cap
+    private Long userId;
+
+    // Null for jobs queued before lanes existed; treated as PRACTICE
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private EvaluationLane lane;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EvaluationJobStatus status;
+
+    private int attempts;
+
+    // Earliest time the job may be claimed (used for retry backoff)
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(length = 2000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package SD_Tech.LeetAI.Entity;
+
+public enum EvaluationJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,13 @@
+package SD_Tech.LeetAI.Entity;
+
+/**
+ * Priority lane of an evaluation. Lanes share Judge0 by weight, see FairEvaluationScheduler.
+ */
+public enum EvaluationLane {
+    // Live contest submissions
+    CONTEST,
+    // Regular submissions
+    PRACTICE,
+    // Admin and maintenance runs such as test case validation
+    BACKGROUND
+}
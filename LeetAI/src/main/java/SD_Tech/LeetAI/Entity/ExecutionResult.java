@@ -0,0 +1,49 @@
+package SD_Tech.LeetAI.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Persistent tier of the execution result cache: the verdict of one deterministic run,
+ * addressed by the hash of everything that determines it.
+ */
+@Entity
+@Table(name = "execution_results")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExecutionResult {
+
+    // SHA-256 hex of language id, source, stdin, limits and expected output
+    @Id
+    @Column(length = 64)
+    private String cacheKey;
+
+    private int statusId;
+
+    private String statusDescription;
+
+    @Column(columnDefinition = "TEXT")
+    private String stdout;
+
+    @Column(columnDefinition = "TEXT")
+    private String stderr;
+
+    @Column(columnDefinition = "TEXT")
+    private String compileOutput;
+
+    private long timeMs;
+
+    private long memoryKb;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package SD_Tech.LeetAI.Entity;
+
+/**
+ * How a program's stdout is compared with a test case's expected output.
+ */
+public enum OutputComparisonMode {
+    // Character for character
+    EXACT,
+    // Trailing spaces on each line and trailing blank lines are ignored
+    IGNORE_TRAILING_WHITESPACE,
+    // Whitespace-separated tokens must match; amount and kind of whitespace is ignored
+    TOKEN,
+    // Like TOKEN, but numeric tokens match within an absolute or relative tolerance
+    FLOAT
+}
@@ -4,6 +4,7 @@
 	import lombok.*;
 	import com.fasterxml.jackson.annotation.JsonIgnore;
 	
+	import java.time.LocalDateTime;
 	import java.util.ArrayList;
 	import java.util.HashSet;
 	import java.util.List;
@@ -11,7 +12,11 @@
 	import java.util.Set;
 	
 	@Entity
-	@Table(name = "problems")
+	@Table(name = "problems", indexes = {
+	        // Keyset order of the problem listing for each ProblemSort
+	        @Index(name = "idx_problems_title_id", columnList = "title, id"),
+	        @Index(name = "idx_problems_difficulty_id", columnList = "difficulty, id")
+	})
 	@Data
 	@NoArgsConstructor
 	@AllArgsConstructor
@@ -22,11 +27,14 @@
 	    @GeneratedValue(strategy = GenerationType.IDENTITY)
 	    private Long id;
 	
+	    // Required: keyset paging seeks on (title, id) and (difficulty, id), see ProblemRepositoryCustomImpl
+	    @Column(nullable = false)
 	    private String title;
 	
 	    @Column(length = 5000)
 	    private String description;
 	
+	    @Column(nullable = false)
 	    private String difficulty; // EASY, MEDIUM, HARD
 	
 	    @Column(length = 2000)
@@ -45,6 +53,20 @@
 	    private String referenceSolution; // Reference solution for test case validation
 	
 	    private String referenceLanguage; // Language of the reference solution
+
+	    // How submissions' output is judged; null means OutputComparator.DEFAULT_MODE
+	    @Enumerated(EnumType.STRING)
+	    private OutputComparisonMode outputComparisonMode;
+
+	    // Tolerances for FLOAT comparison; null means the OutputComparator defaults
+	    private Double absoluteTolerance;
+
+	    private Double relativeTolerance;
+
+	    // Live contest window; submissions made inside it are evaluated in the contest lane
+	    private LocalDateTime contestStartsAt;
+
+	    private LocalDateTime contestEndsAt;
 	
 	    @OneToMany(mappedBy = "problem", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
 	    @JsonIgnore
@@ -86,6 +108,12 @@
 	        codeTemplate.setProblem(this);
 	    }
 	
+	    // Whether a submission made at the given time counts for the contest
+	    public boolean isContestOpenAt(LocalDateTime time) {
+	        return contestStartsAt != null && contestEndsAt != null
+	                && !time.isBefore(contestStartsAt) && time.isBefore(contestEndsAt);
+	    }
+	
 	    @Override
 	    public boolean equals(Object o) {
 	        if (this == o) return true;
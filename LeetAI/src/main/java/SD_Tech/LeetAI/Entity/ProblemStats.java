@@ -0,0 +1,40 @@
+package SD_Tech.LeetAI.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Judged submission counts of one problem, maintained by StatsService.
+ */
+@Entity
+@Table(name = "problem_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemStats {
+
+    @Id
+    private Long problemId;
+
+    @Column(nullable = false)
+    private long judged;
+
+    @Column(nullable = false)
+    private long accepted;
+
+    // Distinct users with a judged / an accepted submission
+    @Column(nullable = false)
+    private long attemptedBy;
+
+    @Column(nullable = false)
+    private long solvedBy;
+
+    public Double getAcceptanceRate() {
+        return judged > 0 ? (double) accepted / judged : null;
+    }
+}
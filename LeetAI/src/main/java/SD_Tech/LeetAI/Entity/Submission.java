@@ -5,19 +5,31 @@ import java.util.List;
 
 import jakarta.persistence.Basic;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "submissions")
+@Table(name = "submissions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_submissions_idempotency_key", columnNames = "idempotency_key"),
+        @UniqueConstraint(name = "uk_submissions_dedup_key", columnNames = "dedup_key")
+}, indexes = {
+        // Keyset order of the listing endpoints: (submissionTime, id) descending
+        @Index(name = "idx_submissions_time_id", columnList = "submissionTime, id"),
+        @Index(name = "idx_submissions_user_time_id", columnList = "user_id, submissionTime, id"),
+        @Index(name = "idx_submissions_problem_time_id", columnList = "problem_id, submissionTime, id")
+})
 public class Submission {
 
     @Id
@@ -45,16 +57,50 @@ public class Submission {
     private LocalDateTime submissionTime;
     private Integer totalTestCases;
     private Integer passedTestCases;
+
+    // "<userId>:<Idempotency-Key header>", see SubmissionDedupService
+    @Column(name = "idempotency_key", length = 150)
+    @JsonIgnore
+    private String idempotencyKey;
+
+    // Hash of problem, language and code sent with the idempotency key, see SubmissionDedupService
+    @Column(name = "idempotency_payload_hash", length = 64)
+    @JsonIgnore
+    private String idempotencyPayloadHash;
+
+    // Hash of user, problem, language and code plus the dedup window, see SubmissionDedupService
+    @Column(name = "dedup_key", length = 100)
+    @JsonIgnore
+    private String dedupKey;
     
-    // New field to store detailed test case results as JSON
+    // Legacy JSON copy of the results; migrated into testCaseResultsBlob and no longer written
     @Lob
     @Basic(fetch = FetchType.EAGER)
+    @JsonIgnore
     private String testCaseResultsJson;
+
+    // Test case results in TestCaseResultCodec's binary format
+    @Column(length = 10_000_000)
+    @JsonIgnore
+    private byte[] testCaseResultsBlob;
     
     @OneToMany(mappedBy = "submission", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<SubmissionTestCaseResult> testCaseResults;
 
+    // Set by StatsService in the transaction that counts the verdict into the stats tables, so a
+    // re-run evaluation is never counted twice. Never written through the entity.
+    @Column(name = "stats_recorded", columnDefinition = "boolean default false", insertable = false, updatable = false)
+    @JsonIgnore
+    private boolean statsRecorded;
+
+    // Filled in for responses while the evaluation is still queued; not stored
+    @Transient
+    private Long queuePosition;
+
+    @Transient
+    private Long estimatedWaitSeconds;
+
     // Getters and setters
     public Long getId() {
         return id;
@@ -152,6 +198,58 @@ public class Submission {
         this.testCaseResultsJson = testCaseResultsJson;
     }
 
+    public Long getQueuePosition() {
+        return queuePosition;
+    }
+
+    public void setQueuePosition(Long queuePosition) {
+        this.queuePosition = queuePosition;
+    }
+
+    public boolean isStatsRecorded() {
+        return statsRecorded;
+    }
+
+    public Long getEstimatedWaitSeconds() {
+        return estimatedWaitSeconds;
+    }
+
+    public void setEstimatedWaitSeconds(Long estimatedWaitSeconds) {
+        this.estimatedWaitSeconds = estimatedWaitSeconds;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyPayloadHash() {
+        return idempotencyPayloadHash;
+    }
+
+    public void setIdempotencyPayloadHash(String idempotencyPayloadHash) {
+        this.idempotencyPayloadHash = idempotencyPayloadHash;
+    }
+
+    public String getDedupKey() {
+        return dedupKey;
+    }
+
+    public void setDedupKey(String dedupKey) {
+        this.dedupKey = dedupKey;
+    }
+
+    public byte[] getTestCaseResultsBlob() {
+        return testCaseResultsBlob;
+    }
+
+    public void setTestCaseResultsBlob(byte[] testCaseResultsBlob) {
+        this.testCaseResultsBlob = testCaseResultsBlob;
+    }
+
     public List<SubmissionTestCaseResult> getTestCaseResults() {
         return testCaseResults;
     }
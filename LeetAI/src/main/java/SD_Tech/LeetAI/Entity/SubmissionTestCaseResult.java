@@ -1,5 +1,6 @@
 package SD_Tech.LeetAI.Entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -21,9 +22,16 @@ public class SubmissionTestCaseResult {
     @ManyToOne
     private TestCase testCase;
 
+    // TEXT: program output and compiler errors routinely exceed varchar(255)
+    @Column(columnDefinition = "TEXT")
     private String actualOutput;
     private boolean passed;
+    // Not run because an earlier stage failed; the default lets existing rows take the column
+    @Column(columnDefinition = "boolean default false")
+    private boolean skipped;
     private Long runtimeMs;
+    private Long memoryKb;
+    @Column(columnDefinition = "TEXT")
     private String error;
 
     // Getters and setters
@@ -67,6 +75,14 @@ public class SubmissionTestCaseResult {
         this.passed = passed;
     }
 
+    public boolean isSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(boolean skipped) {
+        this.skipped = skipped;
+    }
+
     public Long getRuntimeMs() {
         return runtimeMs;
     }
@@ -75,6 +91,14 @@ public class SubmissionTestCaseResult {
         this.runtimeMs = runtimeMs;
     }
 
+    public Long getMemoryKb() {
+        return memoryKb;
+    }
+
+    public void setMemoryKb(Long memoryKb) {
+        this.memoryKb = memoryKb;
+    }
+
     public String getError() {
         return error;
     }
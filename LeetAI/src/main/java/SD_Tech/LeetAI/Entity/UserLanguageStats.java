@@ -0,0 +1,49 @@
+package SD_Tech.LeetAI.Entity;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Judged submission counts of one user in one language (lower-cased), maintained by StatsService.
+ */
+@Entity
+@Table(name = "user_language_stats")
+@IdClass(UserLanguageStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLanguageStats {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String language;
+    }
+
+    @Id
+    private Long userId;
+
+    @Id
+    @Column(length = 32)
+    private String language;
+
+    @Column(nullable = false)
+    private long judged;
+
+    @Column(nullable = false)
+    private long accepted;
+
+    public Double getAcceptanceRate() {
+        return judged > 0 ? (double) accepted / judged : null;
+    }
+}
@@ -0,0 +1,58 @@
+package SD_Tech.LeetAI.Entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user's judged submissions to one problem. Maintained by StatsService together with the
+ * problem_stats, user_stats and user_language_stats rows it feeds.
+ */
+@Entity
+@Table(name = "user_problem_stats")
+@IdClass(UserProblemStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProblemStats {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long problemId;
+    }
+
+    @Id
+    private Long userId;
+
+    @Id
+    private Long problemId;
+
+    @Column(nullable = false)
+    private long attempts;
+
+    @Column(nullable = false)
+    private long accepted;
+
+    // Submission time of the first accepted submission; null while unsolved
+    private LocalDateTime firstSolvedAt;
+
+    // Fastest accepted submission
+    private Long bestRuntimeMs;
+
+    private LocalDateTime lastSubmittedAt;
+
+    public boolean isSolved() {
+        return accepted > 0;
+    }
+}
@@ -0,0 +1,39 @@
+package SD_Tech.LeetAI.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Judged submission counts of one user across all problems, maintained by StatsService.
+ */
+@Entity
+@Table(name = "user_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStats {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private long judged;
+
+    @Column(nullable = false)
+    private long accepted;
+
+    @Column(nullable = false)
+    private long attemptedProblems;
+
+    @Column(nullable = false)
+    private long solvedProblems;
+
+    public Double getAcceptanceRate() {
+        return judged > 0 ? (double) accepted / judged : null;
+    }
+}
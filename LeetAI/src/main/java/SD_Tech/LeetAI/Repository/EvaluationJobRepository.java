@@ -0,0 +1,75 @@
+package SD_Tech.LeetAI.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import SD_Tech.LeetAI.Entity.EvaluationJob;
+import SD_Tech.LeetAI.Entity.EvaluationJobStatus;
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface EvaluationJobRepository extends JpaRepository<EvaluationJob, Long> {
+
+    // Claim order of lanes: contest, practice (and jobs without a lane), background
+    String LANE_RANK = "(CASE lane WHEN 'CONTEST' THEN 0 WHEN 'BACKGROUND' THEN 2 ELSE 1 END)";
+
+    Optional<EvaluationJob> findBySubmissionId(Long submissionId);
+
+    long countByStatusIn(Collection<EvaluationJobStatus> statuses);
+
+    // Rows locked by another node's claim are skipped instead of waited on. Contest jobs are
+    // claimed first; sharing Judge0 fairly is left to FairEvaluationScheduler. Jobs of users
+    // already at their in-flight cap on this node are left for later.
+    @Query(value = "SELECT * FROM evaluation_jobs WHERE status = 'QUEUED' AND available_at <= :now "
+            + "AND (user_id IS NULL OR user_id NOT IN (:excludedUsers)) "
+            + "ORDER BY " + LANE_RANK + ", available_at, id "
+            + "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EvaluationJob> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit,
+                                      @Param("excludedUsers") Collection<Long> excludedUsers);
+
+    /**
+     * Queued jobs that will be claimed before the given one.
+     */
+    @Query(value = "SELECT COUNT(*) FROM evaluation_jobs j WHERE j.status = 'QUEUED' AND ("
+            + LANE_RANK + " < :laneRank "
+            + "OR (" + LANE_RANK + " = :laneRank "
+            + "AND (j.available_at < :availableAt OR (j.available_at = :availableAt AND j.id < :id))))",
+            nativeQuery = true)
+    long countQueuedAhead(@Param("laneRank") int laneRank, @Param("availableAt") LocalDateTime availableAt,
+                          @Param("id") Long id);
+
+    long countByUserIdAndStatusAndIdLessThan(Long userId, EvaluationJobStatus status, Long id);
+
+    /**
+     * The job if {@code leaseOwner} still holds its lease, with the row locked until the
+     * transaction ends so lease recovery cannot hand it to another worker meanwhile.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<EvaluationJob> findByIdAndLeaseOwnerAndStatus(Long id, String leaseOwner, EvaluationJobStatus status);
+
+    @Query("SELECT j.submissionId FROM EvaluationJob j "
+            + "WHERE j.status = SD_Tech.LeetAI.Entity.EvaluationJobStatus.RUNNING AND j.leaseExpiresAt < :now "
+            + "AND j.attempts >= :maxAttempts")
+    List<Long> findExhaustedExpiredLeases(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts);
+
+    // Jobs that used up their attempts (e.g. by killing their worker every time) fail instead of
+    // being redelivered forever
+    @Modifying
+    @Query("UPDATE EvaluationJob j SET "
+            + "j.status = CASE WHEN j.attempts >= :maxAttempts THEN SD_Tech.LeetAI.Entity.EvaluationJobStatus.FAILED "
+            + "ELSE SD_Tech.LeetAI.Entity.EvaluationJobStatus.QUEUED END, "
+            + "j.lastError = CASE WHEN j.attempts >= :maxAttempts THEN :exhaustedError ELSE j.lastError END, "
+            + "j.leaseOwner = null, j.leaseExpiresAt = null, j.availableAt = :now, j.updatedAt = :now "
+            + "WHERE j.status = SD_Tech.LeetAI.Entity.EvaluationJobStatus.RUNNING AND j.leaseExpiresAt < :now")
+    int requeueExpiredLeases(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts,
+                             @Param("exhaustedError") String exhaustedError);
+}
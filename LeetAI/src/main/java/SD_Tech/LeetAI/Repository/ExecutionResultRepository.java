@@ -0,0 +1,10 @@
+package SD_Tech.LeetAI.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import SD_Tech.LeetAI.Entity.ExecutionResult;
+
+@Repository
+public interface ExecutionResultRepository extends JpaRepository<ExecutionResult, String> {
+}
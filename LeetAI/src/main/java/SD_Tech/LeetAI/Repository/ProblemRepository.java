@@ -1,18 +1,65 @@
 package SD_Tech.LeetAI.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import SD_Tech.LeetAI.DTO.ProblemSummaryDTO;
 import SD_Tech.LeetAI.Entity.Problem;
 
 @Repository
-public interface ProblemRepository extends JpaRepository<Problem, Long> {
+public interface ProblemRepository extends JpaRepository<Problem, Long>, ProblemRepositoryCustom {
+
+    String SUMMARY_SELECT = "SELECT new SD_Tech.LeetAI.DTO.ProblemSummaryDTO(p.id, p.title, p.difficulty) FROM Problem p";
+
+    /**
+     * Tag name of a problem, for filling in a page of summaries with one query.
+     */
+    interface TagNameView {
+        Long getProblemId();
+        String getName();
+    }
+
+    /**
+     * The fields the search index is built from.
+     */
+    interface SearchView {
+        Long getId();
+        String getTitle();
+        String getDescription();
+        String getDifficulty();
+    }
+
+    @Query("SELECT p.id AS id, p.title AS title, p.description AS description, p.difficulty AS difficulty "
+            + "FROM Problem p WHERE p.id > :afterId ORDER BY p.id")
+    List<SearchView> findSearchPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE p.id IN :ids")
+    List<ProblemSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Offset pages of summaries, without the COUNT(*) that a Page return type would add
+    @Query(SUMMARY_SELECT)
+    List<ProblemSummaryDTO> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " JOIN p.tags t WHERE t.name = :tagName ORDER BY p.id")
+    List<ProblemSummaryDTO> findSummariesByTagName(@Param("tagName") String tagName, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE p.difficulty = :difficulty ORDER BY p.id")
+    List<ProblemSummaryDTO> findSummariesByDifficulty(@Param("difficulty") String difficulty, Pageable pageable);
+
+    @Query("SELECT p.id AS problemId, t.name AS name FROM Problem p JOIN p.tags t WHERE p.id IN :ids ORDER BY t.name")
+    List<TagNameView> findTagNamesByProblemIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(p) FROM Problem p JOIN p.tags t WHERE t.name = :tagName")
+    long countByTagName(@Param("tagName") String tagName);
+
+    long countByDifficulty(String difficulty);
 
     @Query("SELECT p FROM Problem p LEFT JOIN FETCH p.tags WHERE p.id = :id")
     Optional<Problem> findByIdWithTags(@Param("id") Long id);
@@ -28,8 +75,5 @@ public interface ProblemRepository extends JpaRepository<Problem, Long> {
     
     @Query("SELECT p FROM Problem p WHERE p.id = :id")
     Optional<Problem> findByIdWithReferenceSolution(@Param("id") Long id);
-    
-    Page<Problem> findByTags(String tagName, Pageable pageable);
-    
-    Page<Problem> findByDifficulty(String difficulty, Pageable pageable);
+
 }
\ No newline at end of file
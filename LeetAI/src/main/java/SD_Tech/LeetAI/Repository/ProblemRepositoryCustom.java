@@ -0,0 +1,15 @@
+package SD_Tech.LeetAI.Repository;
+
+import java.util.List;
+
+import SD_Tech.LeetAI.DTO.ProblemCursor;
+import SD_Tech.LeetAI.DTO.ProblemSummaryDTO;
+
+public interface ProblemRepositoryCustom {
+
+    /**
+     * Up to {@code limit} problem summaries ordered by (sort key, id), strictly after {@code after}
+     * (from the start when null). Seeks on the index instead of skipping an offset.
+     */
+    List<ProblemSummaryDTO> findPageAfter(ProblemSort sort, boolean descending, ProblemCursor after, int limit);
+}
@@ -0,0 +1,48 @@
+package SD_Tech.LeetAI.Repository;
+
+import java.util.List;
+
+import SD_Tech.LeetAI.DTO.ProblemCursor;
+import SD_Tech.LeetAI.DTO.ProblemSummaryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+public class ProblemRepositoryCustomImpl implements ProblemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProblemSummaryDTO> findPageAfter(ProblemSort sort, boolean descending, ProblemCursor after, int limit) {
+        // The key is a whitelisted ProblemSort, never request text, so it is safe to splice in
+        String key = "p." + sort.getProperty();
+        String direction = descending ? "DESC" : "ASC";
+        String beyond = descending ? "<" : ">";
+
+        StringBuilder jpql = new StringBuilder(ProblemRepository.SUMMARY_SELECT);
+        if (after != null) {
+            if (sort == ProblemSort.ID) {
+                jpql.append(" WHERE p.id ").append(beyond).append(" :id");
+            } else {
+                jpql.append(" WHERE (").append(key).append(' ').append(beyond).append(" :value OR (")
+                        .append(key).append(" = :value AND p.id ").append(beyond).append(" :id))");
+            }
+        }
+        jpql.append(" ORDER BY ");
+        if (sort != ProblemSort.ID) {
+            jpql.append(key).append(' ').append(direction).append(", ");
+        }
+        jpql.append("p.id ").append(direction);
+
+        TypedQuery<ProblemSummaryDTO> query = entityManager.createQuery(jpql.toString(), ProblemSummaryDTO.class)
+                .setMaxResults(limit);
+        if (after != null) {
+            query.setParameter("id", after.id());
+            if (sort != ProblemSort.ID) {
+                query.setParameter("value", after.value());
+            }
+        }
+        return query.getResultList();
+    }
+}
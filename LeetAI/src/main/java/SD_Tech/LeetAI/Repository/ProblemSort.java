@@ -0,0 +1,53 @@
+package SD_Tech.LeetAI.Repository;
+
+import java.util.Locale;
+
+import SD_Tech.LeetAI.DTO.ProblemSummaryDTO;
+
+/**
+ * Sort keys accepted by the problem listings. Each is backed by an index ending in id,
+ * so keyset pages can seek on (key, id).
+ */
+public enum ProblemSort {
+    ID("id"),
+    TITLE("title"),
+    DIFFICULTY("difficulty");
+
+    private final String property;
+
+    ProblemSort(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Value of this key on a problem, as stored in a cursor; null for ID, which the cursor carries anyway.
+     */
+    public String valueOf(ProblemSummaryDTO problem) {
+        return switch (this) {
+            case ID -> null;
+            case TITLE -> problem.getTitle();
+            case DIFFICULTY -> problem.getDifficulty();
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException for anything but id, title or difficulty
+     */
+    public static ProblemSort from(String sortBy) {
+        for (ProblemSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(sortBy)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sortBy: " + sortBy + " (use id, title or difficulty)");
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,10 @@
+package SD_Tech.LeetAI.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import SD_Tech.LeetAI.Entity.ProblemStats;
+
+@Repository
+public interface ProblemStatsRepository extends JpaRepository<ProblemStats, Long> {
+}
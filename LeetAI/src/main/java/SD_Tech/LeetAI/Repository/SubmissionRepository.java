@@ -1,12 +1,75 @@
 package SD_Tech.LeetAI.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import SD_Tech.LeetAI.DTO.SubmissionSummaryDTO;
 import SD_Tech.LeetAI.Entity.Submission;
 
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
-    List<Submission> findByUserId(Long userId);
-    List<Submission> findByProblemId(Long problemId);
+    /**
+     * One submission with its user and problem (and the problem's eagerly mapped tags) joined in,
+     * so rendering its details does not fire follow-up selects.
+     */
+    @EntityGraph(attributePaths = {"user", "problem", "problem.tags"})
+    Optional<Submission> findDetailsById(Long id);
+
+    Optional<Submission> findByIdempotencyKey(String idempotencyKey);
+    Optional<Submission> findByDedupKey(String dedupKey);
+
+    /**
+     * Status and counters only, without the code, feedback and result LOBs.
+     */
+    interface StatusView {
+        Long getId();
+        String getStatus();
+        Integer getPassedTestCases();
+        Integer getTotalTestCases();
+        Long getRuntimeMs();
+    }
+
+    @Query("SELECT s.id AS id, s.status AS status, s.passedTestCases AS passedTestCases, "
+            + "s.totalTestCases AS totalTestCases, s.runtimeMs AS runtimeMs FROM Submission s WHERE s.id = :id")
+    Optional<StatusView> findStatusById(@Param("id") Long id);
+
+    @Query("SELECT s.id AS id, s.status AS status, s.passedTestCases AS passedTestCases, "
+            + "s.totalTestCases AS totalTestCases, s.runtimeMs AS runtimeMs FROM Submission s "
+            + "WHERE s.id IN :ids AND s.status NOT IN ('PENDING', 'RUNNING')")
+    List<StatusView> findFinishedStatusByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Submissions whose results are still only in the legacy JSON column, in id order.
+     */
+    List<Submission> findTop100ByIdGreaterThanAndTestCaseResultsBlobIsNullAndTestCaseResultsJsonIsNotNullOrderByIdAsc(Long id);
+
+    String SUMMARY_SELECT = "SELECT new SD_Tech.LeetAI.DTO.SubmissionSummaryDTO(s.id, u.id, u.name, p.id, p.title, "
+            + "s.language, s.status, s.runtimeMs, s.submissionTime, s.totalTestCases, s.passedTestCases) "
+            + "FROM Submission s JOIN s.user u JOIN s.problem p ";
+
+    String BEFORE_CURSOR = "(s.submissionTime < :time OR (s.submissionTime = :time AND s.id < :id)) "
+            + "ORDER BY s.submissionTime DESC, s.id DESC";
+
+    /**
+     * Newest-first submission summaries strictly after the cursor (time, id); the page size comes from the Pageable.
+     */
+    @Query(SUMMARY_SELECT + "WHERE " + BEFORE_CURSOR)
+    List<SubmissionSummaryDTO> findSummariesBefore(@Param("time") LocalDateTime time, @Param("id") Long id,
+                                                   Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId AND " + BEFORE_CURSOR)
+    List<SubmissionSummaryDTO> findSummariesByUserBefore(@Param("userId") Long userId, @Param("time") LocalDateTime time,
+                                                         @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id = :problemId AND " + BEFORE_CURSOR)
+    List<SubmissionSummaryDTO> findSummariesByProblemBefore(@Param("problemId") Long problemId,
+                                                            @Param("time") LocalDateTime time, @Param("id") Long id,
+                                                            Pageable pageable);
 }
@@ -0,0 +1,21 @@
+package SD_Tech.LeetAI.Repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import SD_Tech.LeetAI.Entity.SubmissionTestCaseResult;
+
+@Repository
+public interface SubmissionTestCaseResultRepository extends JpaRepository<SubmissionTestCaseResult, Long> {
+
+    /**
+     * A submission's result rows with their test cases, in one statement.
+     */
+    @Query("SELECT r FROM SubmissionTestCaseResult r LEFT JOIN FETCH r.testCase "
+            + "WHERE r.submission.id = :submissionId ORDER BY r.id")
+    List<SubmissionTestCaseResult> findWithTestCaseBySubmissionId(@Param("submissionId") Long submissionId);
+}
@@ -0,0 +1,14 @@
+package SD_Tech.LeetAI.Repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import SD_Tech.LeetAI.Entity.UserLanguageStats;
+
+@Repository
+public interface UserLanguageStatsRepository extends JpaRepository<UserLanguageStats, UserLanguageStats.Key> {
+
+    List<UserLanguageStats> findByUserIdOrderByJudgedDesc(Long userId);
+}
@@ -0,0 +1,15 @@
+package SD_Tech.LeetAI.Repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import SD_Tech.LeetAI.Entity.UserProblemStats;
+
+@Repository
+public interface UserProblemStatsRepository extends JpaRepository<UserProblemStats, UserProblemStats.Key> {
+
+    // Solved problems of a user, most recent first
+    List<UserProblemStats> findByUserIdAndFirstSolvedAtIsNotNullOrderByFirstSolvedAtDesc(Long userId);
+}
@@ -0,0 +1,48 @@
+package SD_Tech.LeetAI.Service;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import SD_Tech.LeetAI.DTO.Judge0BatchSubmissionRequest;
+import SD_Tech.LeetAI.DTO.Judge0Response;
+
+/**
+ * Runs untrusted submissions. Implementations report results with Judge0 status ids
+ * (3 Accepted, 4 Wrong Answer, 5 Time Limit Exceeded, 6 Compilation Error, 7-12 runtime
+ * errors, 13 Internal Error) so callers do not depend on the backend.
+ *
+ * The backend is chosen with executor.backend: {@code judge0} (default) or {@code local}
+ * ({@link LocalProcessExecutor}, which does not isolate programs from the host).
+ */
+public interface CodeExecutor {
+
+    /**
+     * Run one program against one input and wait for the result.
+     */
+    Judge0Response executeCode(String sourceCode, String language, String input) throws Exception;
+
+    /**
+     * Run every request and wait for all of them. Results are in request order.
+     */
+    List<Judge0Response> runBatch(List<Judge0BatchSubmissionRequest> submissions) throws Exception;
+
+    /**
+     * Like {@link #runBatch(List)}, and also hands each result to {@code onResult} (request index,
+     * result) as soon as it is known. The listener may be called from any thread.
+     */
+    default List<Judge0Response> runBatch(List<Judge0BatchSubmissionRequest> submissions,
+                                          BiConsumer<Integer, Judge0Response> onResult) throws Exception {
+        List<Judge0Response> results = runBatch(submissions);
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) != null) {
+                onResult.accept(i, results.get(i));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Judge0 language id for a language name; requests carry this id in language_id.
+     */
+    int getLanguageId(String language);
+}
@@ -0,0 +1,66 @@
+package SD_Tech.LeetAI.Service;
+
+import java.util.function.Function;
+
+import SD_Tech.LeetAI.Entity.EvaluationLane;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Lane and user an execution is scheduled for.
+ *
+ * Blocking callers set it for the current thread with {@link #open}; executors copy it into
+ * the Reactor context of the pipelines they start ({@link #capture}), where
+ * FairEvaluationScheduler reads it back. Executions without one run as {@link #DEFAULT}.
+ */
+public record EvaluationContext(EvaluationLane lane, Long userId) {
+
+    public static final EvaluationContext DEFAULT = new EvaluationContext(EvaluationLane.PRACTICE, null);
+    public static final EvaluationContext BACKGROUND = new EvaluationContext(EvaluationLane.BACKGROUND, null);
+
+    private static final ThreadLocal<EvaluationContext> CURRENT = new ThreadLocal<>();
+
+    public EvaluationContext {
+        lane = lane != null ? lane : EvaluationLane.PRACTICE;
+    }
+
+    public static EvaluationContext current() {
+        EvaluationContext context = CURRENT.get();
+        return context != null ? context : DEFAULT;
+    }
+
+    /**
+     * Make {@code context} current until the returned scope is closed.
+     */
+    public static Scope open(EvaluationContext context) {
+        EvaluationContext previous = CURRENT.get();
+        CURRENT.set(context);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * For {@code Mono.contextWrite}: captures the current thread's context now, when the
+     * pipeline is assembled, and adds it unless the Reactor context already has one.
+     */
+    public static Function<Context, Context> capture() {
+        EvaluationContext captured = current();
+        return reactorContext -> reactorContext.hasKey(EvaluationContext.class)
+                ? reactorContext
+                : reactorContext.put(EvaluationContext.class, captured);
+    }
+
+    public static EvaluationContext from(ContextView reactorContext) {
+        return reactorContext.getOrDefault(EvaluationContext.class, DEFAULT);
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
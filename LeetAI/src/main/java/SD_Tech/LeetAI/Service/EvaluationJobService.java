@@ -0,0 +1,419 @@
+package SD_Tech.LeetAI.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import SD_Tech.LeetAI.Entity.EvaluationJob;
+import SD_Tech.LeetAI.Entity.EvaluationJobStatus;
+import SD_Tech.LeetAI.Entity.EvaluationLane;
+import SD_Tech.LeetAI.Entity.Submission;
+import SD_Tech.LeetAI.Repository.EvaluationJobRepository;
+import SD_Tech.LeetAI.Repository.SubmissionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Durable evaluation queue backed by the evaluation_jobs table.
+ *
+ * Submissions are enqueued in the same transaction that creates them. Every node polls
+ * for due jobs and claims at most as many as it has free workers using
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED}, so nodes never contend on the same rows.
+ * A claimed job carries a lease (owner plus a token per claim); if the node dies, the lease
+ * expires and the job is queued again, or failed once evaluation.queue.max-attempts claims
+ * have been used. A worker stores its verdict only while it still holds the lease, so a worker
+ * that lost it cannot overwrite the result of the one that took over. Failed evaluations are
+ * retried with exponential backoff until evaluation.queue.max-attempts is reached.
+ *
+ * Admission is bounded: once QUEUED plus RUNNING jobs reach evaluation.queue.capacity, new
+ * submissions are refused with an estimated retry delay instead of queueing without limit.
+ * Enqueueing reserves its slot with a compare-and-set on the node's depth counter, so
+ * concurrent submissions cannot overshoot the capacity between the check and the insert.
+ * A user has at most evaluation.per-user.max-in-flight jobs running on a node; further jobs
+ * of that user stay queued until one of them finishes.
+ */
+@Service
+public class EvaluationJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationJobService.class);
+
+    @Autowired
+    private EvaluationJobRepository evaluationJobRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private SubmissionEvaluationService submissionEvaluationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("evaluationExecutor")
+    private TaskExecutor evaluationExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserConcurrencyLimiter userConcurrencyLimiter;
+
+    @Value("${evaluation.workers:64}")
+    private int workers;
+
+    @Value("${evaluation.queue.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${evaluation.queue.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${evaluation.queue.retry-base-delay-ms:5000}")
+    private long retryBaseDelayMs;
+
+    @Value("${evaluation.queue.retry-max-delay-ms:300000}")
+    private long retryMaxDelayMs;
+
+    // QUEUED + RUNNING jobs (all nodes) above which submissions are refused
+    @Value("${evaluation.queue.capacity:500}")
+    private long capacity;
+
+    // Assumed job duration until real ones have been measured
+    @Value("${evaluation.queue.initial-job-estimate-ms:5000}")
+    private long initialJobEstimateMs;
+
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Refreshed from the table on every dispatch round, bumped locally on enqueue
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong averageJobMs = new AtomicLong(-1);
+
+    private Counter rejectedCounter;
+    private Timer jobTimer;
+    private final Map<EvaluationLane, Timer> verdictLatency = new EnumMap<>(EvaluationLane.class);
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("evaluation.queue.depth", queueDepth, AtomicLong::get)
+                .description("Queued and running evaluation jobs")
+                .register(meterRegistry);
+        Gauge.builder("evaluation.queue.capacity", () -> capacity)
+                .register(meterRegistry);
+        Gauge.builder("evaluation.jobs.in-flight", inFlight, AtomicInteger::get)
+                .description("Evaluation jobs running on this node")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("evaluation.queue.rejected")
+                .description("Submissions refused because the evaluation queue was full")
+                .register(meterRegistry);
+        jobTimer = Timer.builder("evaluation.job.duration")
+                .register(meterRegistry);
+        for (EvaluationLane lane : EvaluationLane.values()) {
+            verdictLatency.put(lane, Timer.builder("evaluation.verdict.latency")
+                    .description("Time from submission to verdict")
+                    .tag("lane", lane.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Refuse new work early when the queue is at capacity. Only a cheap pre-check; the slot
+     * itself is reserved by {@link #enqueue}.
+     *
+     * @throws EvaluationQueueFullException with the estimated time until a slot frees up
+     */
+    public void admit() {
+        long depth = queueDepth.get();
+        if (depth >= capacity) {
+            rejectedCounter.increment();
+            throw new EvaluationQueueFullException(estimateRetryAfter(depth));
+        }
+    }
+
+    // Check and take a slot in one step; the slot is returned if the enqueuing transaction rolls back
+    private void reserveSlot() {
+        long depth = queueDepth.getAndUpdate(current -> current < capacity ? current + 1 : current);
+        if (depth >= capacity) {
+            rejectedCounter.increment();
+            throw new EvaluationQueueFullException(estimateRetryAfter(depth));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        queueDepth.decrementAndGet();
+                    }
+                }
+            });
+        }
+    }
+
+    // Time for the workers to drain the queue back below capacity
+    private Duration estimateRetryAfter(long depth) {
+        long jobMs = averageJobMs.get() > 0 ? averageJobMs.get() : initialJobEstimateMs;
+        long excess = depth - capacity + 1;
+        long waitMs = excess * jobMs / Math.max(1, workers);
+        return Duration.ofMillis(Math.max(1000, waitMs));
+    }
+
+    public long getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Queue a submission for evaluation in the practice lane. Joins the caller's transaction.
+     */
+    @Transactional
+    public EvaluationJob enqueue(Long submissionId) {
+        return enqueue(submissionId, null, EvaluationLane.PRACTICE);
+    }
+
+    /**
+     * Queue a user's submission for evaluation in the given lane. Joins the caller's transaction.
+     *
+     * @throws EvaluationQueueFullException when no slot is left; the caller's transaction rolls back
+     */
+    @Transactional
+    public EvaluationJob enqueue(Long submissionId, Long userId, EvaluationLane lane) {
+        reserveSlot();
+        LocalDateTime now = LocalDateTime.now();
+        EvaluationJob job = EvaluationJob.builder()
+                .submissionId(submissionId)
+                .userId(userId)
+                .lane(lane)
+                .status(EvaluationJobStatus.QUEUED)
+                .attempts(0)
+                .availableAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        return evaluationJobRepository.save(job);
+    }
+
+    @Scheduled(fixedDelayString = "${evaluation.queue.poll-interval-ms:500}")
+    public void dispatch() {
+        queueDepth.set(evaluationJobRepository.countByStatusIn(
+                EnumSet.of(EvaluationJobStatus.QUEUED, EvaluationJobStatus.RUNNING)));
+
+        int free = workers - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+
+        List<EvaluationJob> acquired = new ArrayList<>();
+        List<EvaluationJob> claimed;
+        try {
+            claimed = transactionTemplate.execute(status -> claim(free, acquired));
+        } catch (RuntimeException e) {
+            acquired.forEach(job -> userConcurrencyLimiter.release(job.getUserId()));
+            throw e;
+        }
+        if (claimed == null) {
+            return;
+        }
+
+        for (EvaluationJob job : claimed) {
+            inFlight.incrementAndGet();
+            try {
+                evaluationExecutor.execute(() -> {
+                    try {
+                        run(job);
+                    } finally {
+                        inFlight.decrementAndGet();
+                        userConcurrencyLimiter.release(job.getUserId());
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Executor rejected the job: leave it to lease expiry recovery
+                inFlight.decrementAndGet();
+                userConcurrencyLimiter.release(job.getUserId());
+                logger.error("Could not start evaluation job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${evaluation.queue.lease-check-interval-ms:30000}")
+    @Transactional
+    public void recoverExpiredLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        String exhaustedError = "Lease expired on each of " + maxAttempts + " attempts";
+        List<Long> exhausted = evaluationJobRepository.findExhaustedExpiredLeases(now, maxAttempts);
+        int recovered = evaluationJobRepository.requeueExpiredLeases(now, maxAttempts, exhaustedError);
+        if (recovered > 0) {
+            logger.warn("Recovered {} evaluation jobs whose lease expired, {} of them failed after {} attempts",
+                    recovered, exhausted.size(), maxAttempts);
+        }
+        for (Long submissionId : exhausted) {
+            submissionEvaluationService.markFailed(submissionId, exhaustedError);
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Position (1 = next) and estimated wait of a submission whose job is still queued.
+     */
+    public record QueueStatus(long position, long estimatedWaitSeconds) {
+    }
+
+    /**
+     * Where the submission's job stands in the queue, or empty once it is running or done. The
+     * wait covers both the jobs ahead of it and the user's own earlier jobs, which the
+     * per-user cap runs only a few at a time.
+     */
+    @Transactional(readOnly = true)
+    public Optional<QueueStatus> queueStatus(Long submissionId) {
+        return evaluationJobRepository.findBySubmissionId(submissionId)
+                .filter(job -> job.getStatus() == EvaluationJobStatus.QUEUED)
+                .map(job -> {
+                    long ahead = evaluationJobRepository.countQueuedAhead(laneRank(job.getLane()),
+                            job.getAvailableAt(), job.getId());
+                    long ownAhead = job.getUserId() == null ? 0 : evaluationJobRepository
+                            .countByUserIdAndStatusAndIdLessThan(job.getUserId(), EvaluationJobStatus.QUEUED, job.getId());
+                    long jobMs = averageJobMs.get() > 0 ? averageJobMs.get() : initialJobEstimateMs;
+                    long rounds = Math.max((ahead + 1 + Math.max(1, workers) - 1) / Math.max(1, workers),
+                            (ownAhead + userConcurrencyLimiter.getMaxInFlight())
+                                    / Math.max(1, userConcurrencyLimiter.getMaxInFlight()));
+                    return new QueueStatus(ahead + 1, TimeUnit.MILLISECONDS.toSeconds(rounds * jobMs));
+                });
+    }
+
+    // Same order as EvaluationJobRepository.LANE_RANK
+    private static int laneRank(EvaluationLane lane) {
+        if (lane == EvaluationLane.CONTEST) {
+            return 0;
+        }
+        return lane == EvaluationLane.BACKGROUND ? 2 : 1;
+    }
+
+    // Jobs of users at their cap stay QUEUED; their row locks are released on commit
+    private List<EvaluationJob> claim(int limit, List<EvaluationJob> acquired) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> saturated = userConcurrencyLimiter.saturatedUsers();
+        List<EvaluationJob> candidates = evaluationJobRepository.lockClaimable(now, limit,
+                saturated.isEmpty() ? List.of(-1L) : saturated);
+        List<EvaluationJob> jobs = new ArrayList<>();
+        for (EvaluationJob job : candidates) {
+            if (userConcurrencyLimiter.tryAcquire(job.getUserId())) {
+                acquired.add(job);
+                jobs.add(job);
+            }
+        }
+        for (EvaluationJob job : jobs) {
+            job.setStatus(EvaluationJobStatus.RUNNING);
+            job.setLeaseOwner(nodeId + "/" + UUID.randomUUID());
+            job.setLeaseExpiresAt(now.plusNanos(leaseMs * 1_000_000));
+            job.setAttempts(job.getAttempts() + 1);
+            job.setUpdatedAt(now);
+        }
+        return evaluationJobRepository.saveAll(jobs);
+    }
+
+    private void run(EvaluationJob job) {
+        Submission submission = submissionRepository.findById(job.getSubmissionId()).orElse(null);
+        if (submission == null) {
+            finish(job, EvaluationJobStatus.FAILED, "Submission no longer exists", null);
+            return;
+        }
+
+        long started = System.nanoTime();
+        EvaluationContext context = new EvaluationContext(job.getLane(),
+                submission.getUser() != null ? submission.getUser().getId() : null);
+        try (EvaluationContext.Scope scope = EvaluationContext.open(context)) {
+            submissionEvaluationService.evaluateSubmissionWithAI(submission, () -> checkLease(job));
+            recordDuration(System.nanoTime() - started);
+            recordVerdictLatency(context.lane(), job.getCreatedAt());
+            finish(job, EvaluationJobStatus.DONE, null, null);
+        } catch (Exception e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            if (job.getAttempts() >= maxAttempts) {
+                logger.error("Evaluation of submission {} failed after {} attempts: {}",
+                        job.getSubmissionId(), job.getAttempts(), message);
+                finish(job, EvaluationJobStatus.FAILED, message, null,
+                        () -> submissionEvaluationService.markFailed(job.getSubmissionId(), message));
+            } else {
+                long delayMs = Math.min(retryMaxDelayMs, retryBaseDelayMs * (1L << Math.min(20, job.getAttempts() - 1)));
+                logger.warn("Evaluation of submission {} failed (attempt {}), retrying in {} ms: {}",
+                        job.getSubmissionId(), job.getAttempts(), delayMs, message);
+                finish(job, EvaluationJobStatus.QUEUED, message, LocalDateTime.now().plusNanos(delayMs * 1_000_000));
+            }
+        }
+    }
+
+    // Submission to verdict, including time in the queue and retries
+    private void recordVerdictLatency(EvaluationLane lane, LocalDateTime queuedAt) {
+        if (queuedAt != null) {
+            verdictLatency.get(lane).record(Duration.between(queuedAt, LocalDateTime.now()));
+        }
+    }
+
+    // Exponentially weighted moving average (alpha 0.2) of successful job durations
+    private void recordDuration(long nanos) {
+        jobTimer.record(nanos, TimeUnit.NANOSECONDS);
+        long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+        averageJobMs.updateAndGet(previous -> previous < 0 ? ms : (previous * 4 + ms) / 5);
+    }
+
+    // Runs in the verdict transaction; the row lock keeps the lease until the verdict commits
+    private void checkLease(EvaluationJob claimed) {
+        if (evaluationJobRepository.findByIdAndLeaseOwnerAndStatus(claimed.getId(), claimed.getLeaseOwner(),
+                EvaluationJobStatus.RUNNING).isEmpty()) {
+            throw new IllegalStateException("Lease on evaluation job " + claimed.getId() + " was lost; verdict discarded");
+        }
+    }
+
+    private void finish(EvaluationJob claimed, EvaluationJobStatus status, String error, LocalDateTime availableAt) {
+        finish(claimed, status, error, availableAt, () -> { });
+    }
+
+    // Only the current lease holder may move the job on; alsoDo runs in the same transaction
+    private void finish(EvaluationJob claimed, EvaluationJobStatus status, String error, LocalDateTime availableAt,
+                        Runnable alsoDo) {
+        transactionTemplate.executeWithoutResult(tx -> evaluationJobRepository.findByIdAndLeaseOwnerAndStatus(
+                        claimed.getId(), claimed.getLeaseOwner(), EvaluationJobStatus.RUNNING)
+                .ifPresentOrElse(job -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    job.setStatus(status);
+                    job.setLeaseOwner(null);
+                    job.setLeaseExpiresAt(null);
+                    job.setLastError(error != null && error.length() > 2000 ? error.substring(0, 2000) : error);
+                    if (availableAt != null) {
+                        job.setAvailableAt(availableAt);
+                    }
+                    job.setUpdatedAt(now);
+                    evaluationJobRepository.save(job);
+                    alsoDo.run();
+                }, () -> logger.warn("Lease on evaluation job {} was lost before it finished", claimed.getId())));
+    }
+}
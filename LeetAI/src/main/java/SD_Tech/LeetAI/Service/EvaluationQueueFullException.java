@@ -0,0 +1,20 @@
+package SD_Tech.LeetAI.Service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the evaluation queue is at capacity and a new submission cannot be accepted.
+ */
+public class EvaluationQueueFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public EvaluationQueueFullException(Duration retryAfter) {
+        super("Evaluation queue is full. Please retry in " + Math.max(1, retryAfter.toSeconds()) + " seconds.");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,221 @@
+package SD_Tech.LeetAI.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import SD_Tech.LeetAI.DTO.Judge0Response;
+import SD_Tech.LeetAI.Entity.ExecutionResult;
+import SD_Tech.LeetAI.Repository.ExecutionResultRepository;
+
+/**
+ * Content-addressed cache of Judge0 verdicts.
+ *
+ * A run is identified by the SHA-256 of its language id, source, stdin, limits and expected
+ * output. Results live in a bounded LRU map and, when judge0.cache.persistent.enabled is set,
+ * in the execution_results table so they survive restarts and are shared between nodes.
+ * Only deterministic verdicts are stored; time limits, internal errors and pending
+ * submissions always go back to Judge0.
+ */
+@Component
+public class ExecutionResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionResultCache.class);
+
+    // Time Limit Exceeded, Internal Error and Exec Format Error depend on the run, not the input
+    private static final int TIME_LIMIT_EXCEEDED_ID = 5;
+    private static final int INTERNAL_ERROR_ID = 13;
+    private static final int EXEC_FORMAT_ERROR_ID = 14;
+
+    @Autowired
+    private ExecutionResultRepository executionResultRepository;
+
+    @Value("${judge0.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${judge0.cache.persistent.enabled:false}")
+    private boolean persistentEnabled;
+
+    // Larger outputs are not worth keeping in memory
+    @Value("${judge0.cache.max-output-bytes:65536}")
+    private int maxOutputBytes = 65536;
+
+    // Access-ordered, so even reads mutate it; a lock rather than a monitor keeps callers on
+    // virtual threads from pinning their carrier
+    private final Map<String, Judge0Response> memory;
+    private final ReentrantLock memoryLock = new ReentrantLock();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ExecutionResultCache(@Value("${judge0.cache.max-entries:10000}") int maxEntries) {
+        this.memory = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Judge0Response> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cache key for a run; null values hash the same as absent ones.
+     */
+    public static String key(String languageId, String sourceCode, String stdin,
+                             int cpuTimeLimit, int memoryLimit, String expectedOutput) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[] { languageId, sourceCode, stdin,
+                    String.valueOf(cpuTimeLimit), String.valueOf(memoryLimit), expectedOutput }) {
+                byte[] bytes = part != null ? part.getBytes(StandardCharsets.UTF_8) : new byte[0];
+                // Length prefix keeps ("ab", "c") and ("a", "bc") apart
+                digest.update(ByteBuffer.allocate(4).putInt(part != null ? bytes.length : -1).array());
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Look a run up in memory, then in the database. The returned response is a copy.
+     */
+    public Optional<Judge0Response> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Judge0Response cached;
+        memoryLock.lock();
+        try {
+            cached = memory.get(key);
+        } finally {
+            memoryLock.unlock();
+        }
+        if (cached == null && persistentEnabled) {
+            cached = executionResultRepository.findById(key).map(this::fromEntity).orElse(null);
+            if (cached != null) {
+                remember(key, cached);
+            }
+        }
+        if (cached == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(copy(cached));
+    }
+
+    /**
+     * Store a finished run if its verdict is deterministic.
+     */
+    public void put(String key, Judge0Response response) {
+        if (!enabled || !isCacheable(response)) {
+            return;
+        }
+        Judge0Response stored = copy(response);
+        remember(key, stored);
+        if (persistentEnabled) {
+            try {
+                executionResultRepository.save(toEntity(key, stored));
+            } catch (RuntimeException e) {
+                // Another node may have stored the same key first; the memory tier still has it
+                logger.debug("Could not persist execution result {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    boolean isCacheable(Judge0Response response) {
+        if (response == null || response.getStatus() == null) {
+            return false;
+        }
+        int statusId = response.getStatus().getId();
+        return statusId >= 3
+                && statusId != TIME_LIMIT_EXCEEDED_ID
+                && statusId != INTERNAL_ERROR_ID
+                && statusId != EXEC_FORMAT_ERROR_ID;
+    }
+
+    private void remember(String key, Judge0Response response) {
+        if (length(response.getStdout()) + length(response.getStderr()) + length(response.getCompile_output())
+                > maxOutputBytes) {
+            return;
+        }
+        memoryLock.lock();
+        try {
+            memory.put(key, response);
+        } finally {
+            memoryLock.unlock();
+        }
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private static Judge0Response copy(Judge0Response source) {
+        Judge0Response.Status status = new Judge0Response.Status();
+        status.setId(source.getStatus().getId());
+        status.setDescription(source.getStatus().getDescription());
+        Judge0Response copy = new Judge0Response();
+        copy.setStatus(status);
+        copy.setStdout(source.getStdout());
+        copy.setStderr(source.getStderr());
+        copy.setCompile_output(source.getCompile_output());
+        copy.setTime(source.getTime());
+        copy.setMemory(source.getMemory());
+        return copy;
+    }
+
+    private ExecutionResult toEntity(String key, Judge0Response response) {
+        return ExecutionResult.builder()
+                .cacheKey(key)
+                .statusId(response.getStatus().getId())
+                .statusDescription(response.getStatus().getDescription())
+                .stdout(response.getStdout())
+                .stderr(response.getStderr())
+                .compileOutput(response.getCompile_output())
+                .timeMs(response.getTime())
+                .memoryKb(response.getMemory())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Judge0Response fromEntity(ExecutionResult entity) {
+        Judge0Response.Status status = new Judge0Response.Status();
+        status.setId(entity.getStatusId());
+        status.setDescription(entity.getStatusDescription());
+        Judge0Response response = new Judge0Response();
+        response.setStatus(status);
+        response.setStdout(entity.getStdout());
+        response.setStderr(entity.getStderr());
+        response.setCompile_output(entity.getCompileOutput());
+        response.setTime(entity.getTimeMs());
+        response.setMemory(entity.getMemoryKb());
+        return response;
+    }
+}
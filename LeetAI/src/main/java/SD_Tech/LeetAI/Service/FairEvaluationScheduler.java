@@ -0,0 +1,306 @@
+package SD_Tech.LeetAI.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import SD_Tech.LeetAI.Entity.EvaluationLane;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Weighted fair scheduler in front of Judge0.
+ *
+ * At most judge0.scheduler.slots units of work (batch chunks or single runs) are at Judge0 at
+ * once. When more are waiting, the next one is picked in two steps:
+ * <ul>
+ *   <li>Lanes share slots in proportion to their weight: every lane keeps a virtual time that
+ *       advances by cost / weight when it is served, and the waiting lane that would finish a
+ *       quantum earliest in virtual time goes next. A lane that was idle starts at the current virtual time, so
+ *       it cannot save up credit.</li>
+ *   <li>Inside a lane, users take turns by deficit round robin: each turn adds
+ *       judge0.scheduler.quantum executions to the user's credit, and the user's oldest
+ *       waiting work runs once the credit covers its size.</li>
+ * </ul>
+ * One user's burst of submissions therefore queues behind itself instead of in front of
+ * everyone else, and background runs only get the share their weight allows. The lane and
+ * user come from the {@link EvaluationContext} in the Reactor context.
+ */
+@Component
+public class FairEvaluationScheduler {
+
+    // Work without a user shares one flow per lane
+    private static final Long NO_USER = -1L;
+
+    private final int slots;
+    private final int quantum;
+    private final Map<EvaluationLane, LaneQueue> lanes = new EnumMap<>(EvaluationLane.class);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int busySlots;
+    private double virtualTime;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<EvaluationLane, Timer> waitTimers = new EnumMap<>(EvaluationLane.class);
+
+    public FairEvaluationScheduler(
+            @Value("${judge0.scheduler.slots:8}") int slots,
+            @Value("${judge0.scheduler.quantum:20}") int quantum,
+            @Value("${judge0.scheduler.weight.contest:8}") int contestWeight,
+            @Value("${judge0.scheduler.weight.practice:3}") int practiceWeight,
+            @Value("${judge0.scheduler.weight.background:1}") int backgroundWeight) {
+        if (slots <= 0 || quantum <= 0) {
+            throw new IllegalArgumentException("slots and quantum must be positive");
+        }
+        this.slots = slots;
+        this.quantum = quantum;
+        lanes.put(EvaluationLane.CONTEST, new LaneQueue(contestWeight));
+        lanes.put(EvaluationLane.PRACTICE, new LaneQueue(practiceWeight));
+        lanes.put(EvaluationLane.BACKGROUND, new LaneQueue(backgroundWeight));
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        for (EvaluationLane lane : EvaluationLane.values()) {
+            String tag = lane.name().toLowerCase();
+            waitTimers.put(lane, Timer.builder("judge0.scheduler.wait")
+                    .description("Time executions waited for a Judge0 slot")
+                    .tag("lane", tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+            Gauge.builder("judge0.scheduler.waiting", () -> waiting(lane))
+                    .description("Units of work waiting for a Judge0 slot")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("judge0.scheduler.busy-slots", () -> busySlots())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run {@code work} once a slot is granted to it, and free the slot when it terminates or
+     * is cancelled. {@code cost} is the number of executions the work submits.
+     */
+    public <T> Mono<T> schedule(int cost, Mono<T> work) {
+        return Mono.deferContextual(view -> {
+            Ticket ticket = new Ticket(EvaluationContext.from(view), Math.max(1, cost));
+            return Mono.<Void>create(sink -> {
+                        ticket.sink = sink;
+                        sink.onCancel(() -> withdraw(ticket));
+                        enqueue(ticket);
+                    })
+                    .then(Mono.defer(() -> work))
+                    .doFinally(signal -> {
+                        if (ticket.granted) {
+                            release();
+                        }
+                    });
+        });
+    }
+
+    public int waiting(EvaluationLane lane) {
+        lock.lock();
+        try {
+            return lanes.get(lane).waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int busySlots() {
+        lock.lock();
+        try {
+            return busySlots;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(Ticket ticket) {
+        lock.lock();
+        try {
+            LaneQueue lane = lanes.get(ticket.context.lane());
+            if (lane.waiting == 0) {
+                lane.virtualTime = Math.max(lane.virtualTime, virtualTime);
+            }
+            lane.add(ticket);
+        } finally {
+            lock.unlock();
+        }
+        grantWaiting();
+    }
+
+    private void withdraw(Ticket ticket) {
+        lock.lock();
+        try {
+            if (!ticket.granted) {
+                lanes.get(ticket.context.lane()).remove(ticket);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            busySlots--;
+        } finally {
+            lock.unlock();
+        }
+        grantWaiting();
+    }
+
+    // Pick under the lock, but start the work outside it
+    private void grantWaiting() {
+        List<Ticket> granted = new ArrayList<>();
+        lock.lock();
+        try {
+            while (busySlots < slots) {
+                Ticket next = pollNext();
+                if (next == null) {
+                    break;
+                }
+                next.granted = true;
+                busySlots++;
+                granted.add(next);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Ticket ticket : granted) {
+            Timer timer = waitTimers.get(ticket.context.lane());
+            if (timer != null) {
+                timer.record(System.nanoTime() - ticket.enqueuedAt, TimeUnit.NANOSECONDS);
+            }
+            ticket.sink.success();
+        }
+    }
+
+    private Ticket pollNext() {
+        // Smallest virtual finish time of a quantum, so heavier lanes win ties with idle ones
+        LaneQueue chosen = null;
+        for (LaneQueue lane : lanes.values()) {
+            if (lane.waiting > 0 && (chosen == null || lane.finishTime(quantum) < chosen.finishTime(quantum))) {
+                chosen = lane;
+            }
+        }
+        if (chosen == null) {
+            return null;
+        }
+        Ticket ticket = chosen.poll(quantum);
+        virtualTime = chosen.virtualTime;
+        chosen.virtualTime += (double) ticket.cost / chosen.weight;
+        return ticket;
+    }
+
+    private static final class Ticket {
+        final EvaluationContext context;
+        final int cost;
+        final long enqueuedAt = System.nanoTime();
+        MonoSink<Void> sink;
+        volatile boolean granted; // set under the scheduler lock
+
+        Ticket(EvaluationContext context, int cost) {
+            this.context = context;
+            this.cost = cost;
+        }
+
+        Long user() {
+            return context.userId() != null ? context.userId() : NO_USER;
+        }
+    }
+
+    private static final class UserQueue {
+        final Long user;
+        final ArrayDeque<Ticket> tickets = new ArrayDeque<>();
+        long deficit;
+        boolean credited; // quantum already added for the current turn
+
+        UserQueue(Long user) {
+            this.user = user;
+        }
+    }
+
+    // Deficit round robin over the users of one lane
+    private static final class LaneQueue {
+        final int weight;
+        final Map<Long, UserQueue> users = new HashMap<>();
+        final ArrayDeque<UserQueue> turns = new ArrayDeque<>();
+        double virtualTime;
+        int waiting;
+
+        LaneQueue(int weight) {
+            this.weight = Math.max(1, weight);
+        }
+
+        double finishTime(int quantum) {
+            return virtualTime + (double) quantum / weight;
+        }
+
+        void add(Ticket ticket) {
+            UserQueue queue = users.computeIfAbsent(ticket.user(), UserQueue::new);
+            if (queue.tickets.isEmpty()) {
+                turns.addLast(queue);
+            }
+            queue.tickets.addLast(ticket);
+            waiting++;
+        }
+
+        void remove(Ticket ticket) {
+            UserQueue queue = users.get(ticket.user());
+            if (queue != null && queue.tickets.remove(ticket)) {
+                waiting--;
+                if (queue.tickets.isEmpty()) {
+                    drop(queue);
+                }
+            }
+        }
+
+        Ticket poll(int quantum) {
+            while (true) {
+                UserQueue queue = turns.peekFirst();
+                if (!queue.credited) {
+                    queue.deficit += quantum;
+                    queue.credited = true;
+                }
+                Ticket head = queue.tickets.peekFirst();
+                if (queue.deficit >= head.cost) {
+                    queue.tickets.pollFirst();
+                    queue.deficit -= head.cost;
+                    waiting--;
+                    if (queue.tickets.isEmpty()) {
+                        drop(queue);
+                    }
+                    return head;
+                }
+                // Credit used up for this turn; the next user goes
+                queue.credited = false;
+                turns.addLast(turns.pollFirst());
+            }
+        }
+
+        private void drop(UserQueue queue) {
+            turns.remove(queue);
+            users.remove(queue.user);
+        }
+    }
+}
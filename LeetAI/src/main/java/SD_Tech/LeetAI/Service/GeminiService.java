@@ -42,7 +42,7 @@ public class GeminiService {
     private final ObjectMapper objectMapper;
     
     @Autowired
-    private Judge0Service judge0Service;
+    private CodeExecutor codeExecutor;
     
     public static final String[] SUPPORTED_LANGUAGES = {
         "Java", "Python", "C++", "JavaScript"
@@ -120,6 +120,10 @@ public class GeminiService {
     @Value("${app.fallback.mode:false}")
     private boolean fallbackMode;
 
+    // Upper bound for one Gemini call including retries, so a blocked caller always returns
+    @Value("${gemini.request-timeout-ms:120000}")
+    private long requestTimeoutMs = 120000;
+
     public GeminiService() {
         try {
             // Create HttpClient without explicit timeouts
@@ -191,7 +195,7 @@ public class GeminiService {
                                 return new RuntimeException("Failed to connect to Gemini API after " + (retrySignal.totalRetries() + 1) + " attempts");
                             }));
 
-            String responseJson = responseMono.block();
+            String responseJson = responseMono.block(Duration.ofMillis(requestTimeoutMs));
 
             if (responseJson == null || responseJson.isEmpty()) {
                 logger.error("Empty response from Gemini API");
@@ -573,6 +577,7 @@ public class GeminiService {
             List<GeneratedTestCase> validatedTestCases = new ArrayList<>();
             if (problem.getReferenceSolution() != null && problem.getReferenceLanguage() != null) {
                 logger.info("Validating test cases using reference solution");
+                OutputComparator outputComparator = OutputComparator.forProblem(problem);
                 
                 for (GeneratedTestCase testCase : generatedTestCases) {
                     if (validatedTestCases.size() >= count) {
@@ -581,7 +586,7 @@ public class GeminiService {
                     
                     try {
                         // Validate the test case using Judge0
-                        Judge0Response response = judge0Service.executeCode(
+                        Judge0Response response = codeExecutor.executeCode(
                             problem.getReferenceSolution(),
                             problem.getReferenceLanguage(),
                             testCase.getInput()
@@ -593,7 +598,7 @@ public class GeminiService {
                             String actualOutput = response.getStdout().trim();
                             String expectedOutput = testCase.getExpectedOutput().trim();
                             
-                            if (actualOutput.equals(expectedOutput)) {
+                            if (outputComparator.matches(actualOutput, expectedOutput)) {
                                 validatedTestCases.add(testCase);
                                 logger.debug("Test case validated successfully");
                             } else {
@@ -0,0 +1,18 @@
+package SD_Tech.LeetAI.Service;
+
+/**
+ * Thrown when an Idempotency-Key is sent again with a different request payload.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    private final Long submissionId;
+
+    public IdempotencyKeyReusedException(Long submissionId) {
+        super("Idempotency-Key was already used for a different submission");
+        this.submissionId = submissionId;
+    }
+
+    public Long getSubmissionId() {
+        return submissionId;
+    }
+}
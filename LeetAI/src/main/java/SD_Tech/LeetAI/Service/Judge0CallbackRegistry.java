@@ -0,0 +1,189 @@
+package SD_Tech.LeetAI.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import SD_Tech.LeetAI.DTO.Judge0Response;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Correlates Judge0 {@code callback_url} deliveries with the batch that is waiting for them.
+ *
+ * A batch is registered with its tokens in test case order; each callback fills the slot of
+ * its token, and the batch completes once the last slot is filled. Callbacks that arrive
+ * before their batch is registered (Judge0 can be faster than our own bookkeeping) are parked
+ * briefly and consumed on registration. At most judge0.callback.max-early-callbacks are parked,
+ * each for judge0.callback.early-retention-ms; callbacks beyond that are dropped and the
+ * batch polls for them.
+ *
+ * Batches live in this node's memory only. A callback delivered to another node finds no
+ * batch there, so with several nodes each needs its own judge0.callback.url (or sticky
+ * routing of the callback path); otherwise those batches wait judge0.callback.wait-ms and poll.
+ */
+@Component
+public class Judge0CallbackRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(Judge0CallbackRegistry.class);
+
+    private final Map<String, PendingBatch> batchesByToken = new ConcurrentHashMap<>();
+    private final Map<String, EarlyCallback> earlyCallbacks = new ConcurrentHashMap<>();
+
+    @Value("${judge0.callback.early-retention-ms:60000}")
+    private long earlyRetentionMs = 60000;
+
+    @Value("${judge0.callback.max-early-callbacks:1000}")
+    private int maxEarlyCallbacks = 1000;
+
+    /**
+     * Register a batch of tokens. The returned handle completes when every token has reported in.
+     */
+    public PendingBatch register(List<String> tokens) {
+        return register(tokens, response -> { });
+    }
+
+    /**
+     * Register a batch and hand every result to {@code onResult} as its callback arrives.
+     */
+    public PendingBatch register(List<String> tokens, Consumer<Judge0Response> onResult) {
+        PendingBatch batch = new PendingBatch(tokens, onResult);
+        for (String token : tokens) {
+            batchesByToken.put(token, batch);
+        }
+        for (String token : tokens) {
+            EarlyCallback early = earlyCallbacks.remove(token);
+            if (early != null) {
+                batch.complete(token, early.response());
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Deliver a finished submission. Returns false if no batch is waiting for the token yet.
+     */
+    public boolean complete(Judge0Response response) {
+        if (response == null || response.getToken() == null) {
+            return false;
+        }
+        PendingBatch batch = batchesByToken.get(response.getToken());
+        if (batch == null) {
+            logger.debug("Callback for unregistered token {} parked until its batch registers", response.getToken());
+            evictExpiredEarlyCallbacks();
+            if (earlyCallbacks.size() >= maxEarlyCallbacks) {
+                logger.warn("Dropping callback for unregistered token {}: {} callbacks already parked",
+                        response.getToken(), earlyCallbacks.size());
+                return false;
+            }
+            earlyCallbacks.put(response.getToken(), new EarlyCallback(response, System.currentTimeMillis()));
+            return false;
+        }
+        batch.complete(response.getToken(), response);
+        return true;
+    }
+
+    /**
+     * Forget the batch, whether or not it completed.
+     */
+    public void release(PendingBatch batch) {
+        for (String token : batch.tokens) {
+            batchesByToken.remove(token, batch);
+        }
+    }
+
+    int getEarlyCallbackCount() {
+        return earlyCallbacks.size();
+    }
+
+    private void evictExpiredEarlyCallbacks() {
+        long cutoff = System.currentTimeMillis() - earlyRetentionMs;
+        earlyCallbacks.values().removeIf(early -> early.receivedAt() < cutoff);
+    }
+
+    private record EarlyCallback(Judge0Response response, long receivedAt) {
+    }
+
+    public static class PendingBatch {
+
+        private final List<String> tokens;
+        private final Map<String, Integer> indexByToken = new ConcurrentHashMap<>();
+        private final AtomicReferenceArray<Judge0Response> results;
+        private final AtomicInteger remaining;
+        private final Sinks.One<List<Judge0Response>> done = Sinks.one();
+        private final Consumer<Judge0Response> onResult;
+
+        PendingBatch(List<String> tokens, Consumer<Judge0Response> onResult) {
+            this.tokens = List.copyOf(tokens);
+            this.onResult = onResult;
+            this.results = new AtomicReferenceArray<>(tokens.size());
+            this.remaining = new AtomicInteger(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                indexByToken.put(tokens.get(i), i);
+            }
+            if (tokens.isEmpty()) {
+                done.tryEmitValue(new ArrayList<>());
+            }
+        }
+
+        void complete(String token, Judge0Response response) {
+            Integer index = indexByToken.get(token);
+            if (index == null || !results.compareAndSet(index, null, response)) {
+                return; // unknown or duplicate delivery
+            }
+            try {
+                onResult.accept(response);
+            } catch (RuntimeException e) {
+                logger.warn("Result listener failed for token {}: {}", token, e.getMessage());
+            }
+            if (remaining.decrementAndGet() == 0) {
+                done.tryEmitValue(snapshot());
+            }
+        }
+
+        /**
+         * Completes with all results in token order once the last callback arrived.
+         */
+        public Mono<List<Judge0Response>> whenComplete(Duration timeout) {
+            return done.asMono().timeout(timeout);
+        }
+
+        /**
+         * Tokens that have not reported in yet.
+         */
+        public List<String> pendingTokens() {
+            List<String> pending = new ArrayList<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                if (results.get(i) == null) {
+                    pending.add(tokens.get(i));
+                }
+            }
+            return pending;
+        }
+
+        /**
+         * Results received so far in token order; missing entries are null.
+         */
+        public List<Judge0Response> snapshot() {
+            List<Judge0Response> list = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                list.add(results.get(i));
+            }
+            return list;
+        }
+
+        public List<String> getTokens() {
+            return tokens;
+        }
+    }
+}
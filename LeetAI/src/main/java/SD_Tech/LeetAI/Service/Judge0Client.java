@@ -0,0 +1,182 @@
+package SD_Tech.LeetAI.Service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import SD_Tech.LeetAI.DTO.Judge0BatchSubmissionRequest;
+import SD_Tech.LeetAI.DTO.Judge0Response;
+import io.netty.channel.ChannelOption;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking Judge0 HTTP client.
+ *
+ * All calls share one pooled Reactor Netty connection provider (keep-alive, bounded
+ * pool, background eviction of idle connections) and return {@link Mono}s, so callers
+ * never park a thread in a socket read. Every call is guarded by a connect timeout,
+ * a response timeout and an overall request timeout.
+ */
+@Component
+public class Judge0Client {
+
+    private static final Logger logger = LoggerFactory.getLogger(Judge0Client.class);
+
+    private final WebClient webClient;
+    private final String apiBase;
+    private final ObjectMapper objectMapper;
+    private final Duration requestTimeout;
+
+    public Judge0Client(
+            @Value("${judge0.api.url}") String judge0BaseUrl,
+            @Value("${sulu.api.key:}") String suluApiKey,
+            @Value("${judge0.client.max-connections:50}") int maxConnections,
+            @Value("${judge0.client.pending-acquire-timeout-ms:10000}") long pendingAcquireTimeoutMs,
+            @Value("${judge0.client.max-idle-time-ms:30000}") long maxIdleTimeMs,
+            @Value("${judge0.client.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${judge0.client.response-timeout-ms:15000}") long responseTimeoutMs,
+            @Value("${judge0.client.request-timeout-ms:20000}") long requestTimeoutMs) {
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("judge0")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .evictInBackground(Duration.ofMillis(maxIdleTimeMs))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+
+        this.apiBase = normalizeApiBase(judge0BaseUrl);
+        WebClient.Builder builder = WebClient.builder()
+                .baseUrl(apiBase)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+
+        // Judge0 CE (Sulu) expects the key in X-Auth-Token
+        if (suluApiKey != null && !suluApiKey.trim().isEmpty()) {
+            builder.defaultHeader("X-Auth-Token", suluApiKey);
+        }
+
+        this.webClient = builder.build();
+        this.objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+
+        logger.info("Judge0Client initialized (maxConnections: {}, connectTimeout: {}ms, responseTimeout: {}ms)",
+                maxConnections, connectTimeoutMs, responseTimeoutMs);
+    }
+
+    public String getApiBase() {
+        return apiBase;
+    }
+
+    /**
+     * POST /api/submissions. With {@code wait=true} Judge0 answers with the finished submission.
+     */
+    public Mono<Judge0Response> createSubmission(Map<String, Object> body, boolean wait) {
+        return webClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/submissions")
+                        .queryParam("base64_encoded", false)
+                        .queryParam("wait", wait)
+                        .build())
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(Judge0Response.class)
+                .timeout(requestTimeout);
+    }
+
+    /**
+     * POST /api/submissions/batch. Judge0 answers with a bare array of {"token": ...} objects.
+     */
+    public Mono<List<Judge0Response>> createBatch(List<Judge0BatchSubmissionRequest> submissions) {
+        return webClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/submissions/batch")
+                        .queryParam("base64_encoded", false)
+                        .build())
+                .bodyValue(Map.of("submissions", submissions))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(requestTimeout)
+                .map(this::readSubmissions);
+    }
+
+    /**
+     * GET /api/submissions/batch?tokens=... Judge0 answers with {"submissions": [...]}.
+     */
+    public Mono<List<Judge0Response>> getBatch(List<String> tokens) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/submissions/batch")
+                        .queryParam("tokens", String.join(",", tokens))
+                        .queryParam("base64_encoded", false)
+                        .build())
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(requestTimeout)
+                .map(this::readSubmissions);
+    }
+
+    // Accept both the bare-array and the {"submissions": [...]} shapes
+    private List<Judge0Response> readSubmissions(JsonNode root) {
+        JsonNode array = root.isArray() ? root : root.path("submissions");
+        List<Judge0Response> responses = new ArrayList<>();
+        if (array.isArray()) {
+            for (JsonNode node : array) {
+                responses.add(node.isNull() ? null : objectMapper.convertValue(node, Judge0Response.class));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Normalize the configured Judge0 URL to the API base (scheme://host[:port]).
+     * This allows users to set JUDGE0_API_URL with or without paths like /submissions
+     * and the client will still build proper /api/... endpoints.
+     */
+    static String normalizeApiBase(String judge0BaseUrl) {
+        try {
+            if (judge0BaseUrl == null || judge0BaseUrl.trim().isEmpty()) {
+                throw new IllegalStateException("judge0.api.url is not configured");
+            }
+            URI uri = new URI(judge0BaseUrl.trim());
+            String scheme = uri.getScheme() != null ? uri.getScheme() : "https";
+            String host = uri.getHost();
+            int port = uri.getPort();
+            StringBuilder sb = new StringBuilder();
+            sb.append(scheme).append("://").append(host);
+            if (port != -1) sb.append(":").append(port);
+            return sb.toString();
+        } catch (URISyntaxException e) {
+            // If parsing fails, attempt a best-effort cleanup
+            String cleaned = judge0BaseUrl.replaceAll("/+$", "");
+            // remove path portion if present
+            int idx = cleaned.indexOf("/", 8); // after https://
+            if (idx != -1) {
+                cleaned = cleaned.substring(0, idx);
+            }
+            return cleaned;
+        }
+    }
+}
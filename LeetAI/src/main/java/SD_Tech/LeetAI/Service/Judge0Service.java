@@ -1,50 +1,111 @@
 package SD_Tech.LeetAI.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import java.net.URI;
-import java.net.URISyntaxException;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import SD_Tech.LeetAI.DTO.Judge0BatchResponse;
 import SD_Tech.LeetAI.DTO.Judge0BatchSubmissionRequest;
 import SD_Tech.LeetAI.DTO.Judge0Response;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
-public class Judge0Service {
+public class Judge0Service implements CodeExecutor {
 
-    @Value("${judge0.api.url}")
-    private String judge0BaseUrl;
+    private static final Logger logger = LoggerFactory.getLogger(Judge0Service.class);
 
-    @Value("${sulu.api.key}")
-    private String suluApiKey;
+    @Autowired
+    private Judge0Client judge0Client;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Shared admission control for every outbound Judge0 call
+    @Autowired
+    private TokenBucketRateLimiter judge0RateLimiter;
 
-    // Counter for tracking API calls
-    private static int apiCallCount = 0;
-    private static long lastResetTime = System.currentTimeMillis();
-    
-    // Maximum number of API calls allowed per minute
-    private static final int MAX_CALLS_PER_MINUTE = 30;
-    
-    // Minimum delay between API calls in milliseconds
-    private static final int MIN_DELAY_BETWEEN_CALLS = 1000;
+    @Autowired
+    private Judge0CallbackRegistry judge0CallbackRegistry;
+
+    @Autowired
+    private ExecutionResultCache executionResultCache;
+
+    // Shares Judge0 between lanes and users; see EvaluationContext for how callers are identified
+    @Autowired
+    private FairEvaluationScheduler fairEvaluationScheduler;
+
+    // Judge0 accepts at most 20 submissions per batch
+    @Value("${judge0.batch.max-size:20}")
+    private int batchMaxSize = 20;
+
+    @Value("${judge0.batch.parallelism:4}")
+    private int batchParallelism = 4;
+
+    // Upper bound for running a whole submission, rate-limit waits included
+    @Value("${judge0.batch.deadline-ms:180000}")
+    private long batchDeadlineMs = 180000;
+
+    // Concurrent wait=true executions when an endpoint has no batch support
+    @Value("${judge0.fallback.parallelism:5}")
+    private int fallbackParallelism = 5;
+
+    @Value("${judge0.batch.capability-ttl-ms:600000}")
+    private long batchCapabilityTtlMs = 600000;
+
+    // API base -> time until which its batch endpoint is known to be missing
+    private final Map<String, Long> batchUnsupportedUntil = new ConcurrentHashMap<>();
+
+    @Value("${judge0.callback.url:}")
+    private String callbackUrl;
+
+    @Value("${judge0.callback.secret:}")
+    private String callbackSecret;
+
+    @Value("${judge0.callback.wait-ms:30000}")
+    private long callbackWaitMs;
+
+    @PostConstruct
+    void checkCallbackConfig() {
+        if (callbackUrl != null && !callbackUrl.isBlank() && !callbacksEnabled()) {
+            logger.error("judge0.callback.url is set but judge0.callback.secret is not; "
+                    + "callbacks are disabled and batches are polled instead");
+        }
+    }
+
+    private static final BiConsumer<Integer, Judge0Response> NO_LISTENER = (index, result) -> { };
+
+    // Judge0 "Internal Error"; used for submissions still pending at the polling deadline
+    private static final int POLL_TIMEOUT_STATUS_ID = 13;
+
+    @Value("${judge0.poll.initial-delay-ms:200}")
+    private long pollInitialDelayMs;
+
+    @Value("${judge0.poll.max-delay-ms:3000}")
+    private long pollMaxDelayMs;
+
+    @Value("${judge0.poll.backoff-multiplier:2.0}")
+    private double pollBackoffMultiplier;
+
+    @Value("${judge0.poll.jitter:0.2}")
+    private double pollJitter;
+
+    @Value("${judge0.poll.deadline-ms:60000}")
+    private long pollDeadlineMs;
 
     // Language ID mapping (matching the JavaScript implementation)
     private static final int PYTHON_ID = 71;
@@ -54,167 +115,458 @@ public class Judge0Service {
     private static final int GO_ID = 60;
     private static final int TYPESCRIPT_ID = 74;
 
+    @Override
     public Judge0Response executeCode(String sourceCode, String language, String input) throws Exception {
         try {
-            checkRateLimit();
-
-            int languageId = getLanguageId(language);
-
-            // ✅ Prepare proper JSON payload
-            Map<String, Object> body = new HashMap<>();
-            body.put("language_id", languageId);
-            body.put("source_code", sourceCode);
-            body.put("stdin", input);
-            body.put("redirect_stderr_to_stdout", true); // optional, helpful for debug
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            // ✅ FIX 1: Use correct header for Judge0 CE
-            if (suluApiKey != null && !suluApiKey.trim().isEmpty()) {
-                headers.set("X-Auth-Token", suluApiKey);
-            }
+            Judge0Response result = executeCodeAsync(sourceCode, language, input).block();
+            logger.debug("Judge0 response: {}", result);
+            return result;
+        } catch (Exception e) {
+            logger.error("Failed to execute code: {}", e.getMessage(), e);
+            throw new Exception("Failed to execute code: " + e.getMessage());
+        }
+    }
 
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
+    /**
+     * Non-blocking variant of {@link #executeCode}: a single {@code wait=true} submission,
+     * answered from the execution result cache when the same run was seen before.
+     */
+    public Mono<Judge0Response> executeCodeAsync(String sourceCode, String language, String input) {
+        int languageId = getLanguageId(language);
+        Map<String, Object> body = new HashMap<>();
+        body.put("language_id", languageId);
+        body.put("source_code", sourceCode);
+        body.put("stdin", input);
+        body.put("redirect_stderr_to_stdout", true); // optional, helpful for debug
+
+        Mono<Judge0Response> execute = fairEvaluationScheduler.schedule(1, judge0RateLimiter.acquire()
+                .then(judge0Client.createSubmission(body, true)));
+        if (!executionResultCache.isEnabled()) {
+            return execute.contextWrite(EvaluationContext.capture());
+        }
 
-            // Normalize provided judge0BaseUrl and build API submit URL
-            String apiBase = getApiBase();
-            String submitUrl = apiBase + "/api/submissions?base64_encoded=false&wait=true";
+        // Limits are left to Judge0's defaults here, recorded as 0 in the key
+        String key = ExecutionResultCache.key(String.valueOf(languageId), sourceCode, input, 0, 0, null);
+        return Mono.fromCallable(() -> executionResultCache.get(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(cached -> cached.map(Mono::just).orElseGet(() -> execute
+                        .publishOn(Schedulers.boundedElastic())
+                        .doOnNext(result -> executionResultCache.put(key, result))))
+                .contextWrite(EvaluationContext.capture());
+    }
+
+    // Submit batch of submissions to Judge0 (matching the JavaScript implementation)
+    public Judge0BatchResponse submitBatch(List<Judge0BatchSubmissionRequest> submissions) throws Exception {
+        try {
+            return submitBatchAsync(submissions).block();
+        } catch (Exception e) {
+            logger.error("Failed to submit batch: {}", e.getMessage(), e);
+            throw new Exception("Failed to submit batch: " + e.getMessage());
+        }
+    }
 
-            // ✅ FIX 3: Parse as String first to handle response structure correctly
-            ResponseEntity<String> response = restTemplate.exchange(
-                    submitUrl,
-                    HttpMethod.POST,
-                    request,
-                    String.class
-            );
+    /**
+     * Non-blocking variant of {@link #submitBatch}. Falls back to individual submissions
+     * when the batch endpoint is not available (404).
+     */
+    public Mono<Judge0BatchResponse> submitBatchAsync(List<Judge0BatchSubmissionRequest> submissions) {
+        String callback = callbackUrlWithSecret();
+        if (callback != null) {
+            submissions.forEach(submission -> submission.setCallback_url(callback));
+        }
 
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                throw new RuntimeException("Failed to create submission: " + response.getStatusCode());
-            }
+        String endpoint = judge0Client.getApiBase();
+        if (!isBatchSupported(endpoint)) {
+            return submitIndividually(submissions);
+        }
 
-            // ✅ FIX 4: Safely map JSON to our DTO
-            Judge0Response result = objectMapper.readValue(response.getBody(), Judge0Response.class);
+        return judge0RateLimiter.acquire()
+                .then(judge0Client.createBatch(submissions))
+                .map(responses -> {
+                    Judge0BatchResponse batchResponse = new Judge0BatchResponse();
+                    batchResponse.setSubmissions(responses);
+                    return batchResponse;
+                })
+                .onErrorResume(WebClientResponseException.NotFound.class, notFound -> {
+                    // Endpoint not found -> remember it and fall back to individual submissions
+                    logger.warn("Batch endpoint not found (404) on {}. Falling back to individual submissions for the next {} ms.",
+                            endpoint, batchCapabilityTtlMs);
+                    batchUnsupportedUntil.put(endpoint, System.currentTimeMillis() + batchCapabilityTtlMs);
+                    return submitIndividually(submissions);
+                });
+    }
 
-            // ✅ Log for debugging
-            System.out.println("Judge0 response: " + result);
+    private boolean isBatchSupported(String endpoint) {
+        Long unsupportedUntil = batchUnsupportedUntil.get(endpoint);
+        if (unsupportedUntil == null) {
+            return true;
+        }
+        if (unsupportedUntil < System.currentTimeMillis()) {
+            // Capability expired: probe the batch endpoint again
+            batchUnsupportedUntil.remove(endpoint, unsupportedUntil);
+            return true;
+        }
+        return false;
+    }
 
-            return result;
+    // Fan individual wait=true executions out concurrently (bounded), keeping request order
+    private Mono<Judge0BatchResponse> submitIndividually(List<Judge0BatchSubmissionRequest> submissions) {
+        return Flux.fromIterable(submissions)
+                .flatMapSequential(reqBody -> executeSingle(reqBody)
+                        .onErrorResume(e -> {
+                            // Create a minimal failed response when the execution fails
+                            Judge0Response failed = new Judge0Response();
+                            Judge0Response.Status status = new Judge0Response.Status();
+                            status.setId(13);
+                            status.setDescription("Internal Error");
+                            failed.setStatus(status);
+                            failed.setStdout(null);
+                            failed.setStderr(e.getMessage());
+                            return Mono.just(failed);
+                        }), Math.max(1, fallbackParallelism))
+                .collectList()
+                .map(responses -> {
+                    Judge0BatchResponse fallback = new Judge0BatchResponse();
+                    fallback.setSubmissions(responses);
+                    return fallback;
+                });
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new Exception("Failed to execute code: " + e.getMessage());
+    // Same payload as the batch entry (language id, limits, expected output) so verdicts match
+    private Mono<Judge0Response> executeSingle(Judge0BatchSubmissionRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("language_id", Integer.parseInt(request.getLanguage_id()));
+        body.put("source_code", request.getSource_code());
+        body.put("stdin", request.getStdin());
+        body.put("cpu_time_limit", request.getCpu_time_limit());
+        body.put("memory_limit", request.getMemory_limit());
+        if (request.getExpected_output() != null) {
+            body.put("expected_output", request.getExpected_output());
         }
+
+        return judge0RateLimiter.acquire()
+                .then(judge0Client.createSubmission(body, true));
+    }
+    
+    /**
+     * Submit a batch and wait for every submission to finish. Results come back in request
+     * order. Test sets larger than Judge0's batch cap are split into chunks that are submitted
+     * and awaited concurrently (up to judge0.batch.parallelism at a time). Completion is
+     * delivered through Judge0 callbacks when judge0.callback.url is configured, with polling
+     * as the fallback for callbacks that never arrive.
+     */
+    @Override
+    public List<Judge0Response> runBatch(List<Judge0BatchSubmissionRequest> submissions) throws Exception {
+        return runBatch(submissions, NO_LISTENER);
     }
 
-    // Submit batch of submissions to Judge0 (matching the JavaScript implementation)
-    public Judge0BatchResponse submitBatch(List<Judge0BatchSubmissionRequest> submissions) throws Exception {
+    @Override
+    public List<Judge0Response> runBatch(List<Judge0BatchSubmissionRequest> submissions,
+                                         BiConsumer<Integer, Judge0Response> onResult) throws Exception {
         try {
-            checkRateLimit();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            // ✅ FIX 1: Use correct header for Judge0 CE
-            if (suluApiKey != null && !suluApiKey.trim().isEmpty()) {
-                headers.set("X-Auth-Token", suluApiKey);
-            }
+            return runBatchAsync(submissions, onResult).block();
+        } catch (Exception e) {
+            logger.error("Failed to run batch: {}", e.getMessage(), e);
+            throw new Exception("Failed to run batch: " + e.getMessage());
+        }
+    }
 
-            HttpEntity<List<Judge0BatchSubmissionRequest>> request = new HttpEntity<>(submissions, headers);
+    public Mono<List<Judge0Response>> runBatchAsync(List<Judge0BatchSubmissionRequest> submissions) {
+        return runBatchAsync(submissions, NO_LISTENER);
+    }
 
-            apiCallCount++;
+    /**
+     * Like {@link #runBatchAsync(List)}, reporting each result (request index, result) to
+     * {@code onResult} as soon as its callback or poll reports it finished.
+     */
+    public Mono<List<Judge0Response>> runBatchAsync(List<Judge0BatchSubmissionRequest> submissions,
+                                                    BiConsumer<Integer, Judge0Response> onResult) {
+        BiConsumer<Integer, Judge0Response> listener = guarded(onResult);
+        if (!executionResultCache.isEnabled()) {
+            return runUncached(submissions, listener).contextWrite(EvaluationContext.capture());
+        }
 
-            // Normalize provided judge0BaseUrl and build batch URL
-            String apiBase = getApiBase();
-            String batchUrl = apiBase + "/api/submissions/batch?base64_encoded=false";
-            try {
-                ResponseEntity<String> response = restTemplate.exchange(
-                        batchUrl,
-                        HttpMethod.POST,
-                        request,
-                        String.class
-                );
-
-                // Fixed: Accept both 200 (OK) and 201 (CREATED) as valid responses
-                if ((response.getStatusCode() != HttpStatus.OK && 
-                     response.getStatusCode() != HttpStatus.CREATED) || 
-                     response.getBody() == null) {
-                    throw new RuntimeException("Failed to submit batch: " + response.getStatusCode());
-                }
+        // Cache lookups may hit the database, so keep them off the event loop
+        return Mono.fromCallable(() -> lookUpCached(submissions))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(lookup -> {
+                    List<Integer> missIndexes = new ArrayList<>();
+                    List<Judge0BatchSubmissionRequest> misses = new ArrayList<>();
+                    for (int i = 0; i < submissions.size(); i++) {
+                        if (lookup.results().get(i) == null) {
+                            missIndexes.add(i);
+                            misses.add(submissions.get(i));
+                        }
+                    }
+                    for (int i = 0; i < submissions.size(); i++) {
+                        if (lookup.results().get(i) != null) {
+                            listener.accept(i, lookup.results().get(i));
+                        }
+                    }
+                    if (misses.isEmpty()) {
+                        logger.debug("All {} executions served from the result cache", submissions.size());
+                        return Mono.just(lookup.results());
+                    }
 
-                // ✅ FIX 4: Safely map JSON to our DTO
-                return objectMapper.readValue(response.getBody(), Judge0BatchResponse.class);
-            } catch (HttpClientErrorException.NotFound notFound) {
-                // Endpoint not found -> fall back to submitting individually using executeCode
-                System.err.println("Batch endpoint not found (404). Falling back to individual submissions.");
-                Judge0BatchResponse fallback = new Judge0BatchResponse();
-                List<Judge0Response> responses = new ArrayList<>();
-                for (Judge0BatchSubmissionRequest reqBody : submissions) {
-                    try {
-                        Judge0Response single = executeCode(reqBody.getSource_code(), reqBody.getLanguage_id(), reqBody.getStdin());
-                        responses.add(single);
-                    } catch (Exception e) {
-                        // Create a minimal failed response when executeCode fails
-                        Judge0Response failed = new Judge0Response();
-                        failed.setStdout(null);
-                        failed.setStderr(e.getMessage());
-                        responses.add(failed);
+                    return runUncached(misses, (index, result) -> listener.accept(missIndexes.get(index), result))
+                            .publishOn(Schedulers.boundedElastic())
+                            .map(executed -> {
+                                List<Judge0Response> merged = new ArrayList<>(lookup.results());
+                                for (int i = 0; i < missIndexes.size(); i++) {
+                                    Judge0Response result = i < executed.size() ? executed.get(i) : null;
+                                    int index = missIndexes.get(i);
+                                    merged.set(index, result);
+                                    executionResultCache.put(lookup.keys().get(index), result);
+                                }
+                                return merged;
+                            });
+                })
+                .contextWrite(EvaluationContext.capture());
+    }
+
+    private CachedLookup lookUpCached(List<Judge0BatchSubmissionRequest> submissions) {
+        List<String> keys = new ArrayList<>(submissions.size());
+        List<Judge0Response> results = new ArrayList<>(submissions.size());
+        for (Judge0BatchSubmissionRequest request : submissions) {
+            String key = ExecutionResultCache.key(request.getLanguage_id(), request.getSource_code(),
+                    request.getStdin(), request.getCpu_time_limit(), request.getMemory_limit(),
+                    request.getExpected_output());
+            keys.add(key);
+            results.add(executionResultCache.get(key).orElse(null));
+        }
+        return new CachedLookup(keys, results);
+    }
+
+    // Cache keys and cached results in request order; results are null for misses
+    private record CachedLookup(List<String> keys, List<Judge0Response> results) {
+    }
+
+    // The chunk fan-out is the submission's scope: a failing chunk or the batch deadline
+    // cancels the sibling chunks, including their pending HTTP calls and poll timers
+    private Mono<List<Judge0Response>> runUncached(List<Judge0BatchSubmissionRequest> submissions,
+                                                   BiConsumer<Integer, Judge0Response> onResult) {
+        List<List<Judge0BatchSubmissionRequest>> chunks = chunkList(submissions, batchMaxSize);
+        return Flux.range(0, chunks.size())
+                .flatMapSequential(chunkIndex -> runChunk(chunks.get(chunkIndex), chunkIndex * batchMaxSize, onResult),
+                        Math.max(1, batchParallelism))
+                .concatMapIterable(results -> results)
+                .collectList()
+                .timeout(Duration.ofMillis(batchDeadlineMs));
+    }
+
+    // A chunk holds its scheduler slot from submission until its last result is in
+    private Mono<List<Judge0Response>> runChunk(List<Judge0BatchSubmissionRequest> chunk, int offset,
+                                                BiConsumer<Integer, Judge0Response> onResult) {
+        return fairEvaluationScheduler.schedule(chunk.size(), awaitChunk(chunk, offset, onResult));
+    }
+
+    private Mono<List<Judge0Response>> awaitChunk(List<Judge0BatchSubmissionRequest> chunk, int offset,
+                                                  BiConsumer<Integer, Judge0Response> onResult) {
+        return submitBatchAsync(chunk)
+                .flatMap(batchResponse -> {
+                    List<Judge0Response> submitted = batchResponse.getSubmissions() != null
+                            ? batchResponse.getSubmissions() : new ArrayList<>();
+                    Map<String, Integer> indexByToken = new HashMap<>();
+                    for (int i = 0; i < submitted.size(); i++) {
+                        Judge0Response r = submitted.get(i);
+                        if (r != null && isTerminal(r)) {
+                            onResult.accept(offset + i, r);
+                        } else if (r != null && r.getToken() != null) {
+                            indexByToken.put(r.getToken(), offset + i);
+                        }
                     }
+                    return awaitResults(submitted, finished -> {
+                        Integer index = indexByToken.get(finished.getToken());
+                        if (index != null) {
+                            onResult.accept(index, finished);
+                        }
+                    });
+                })
+                .map(results -> padToSize(results, chunk.size()));
+    }
+
+    // Keep positions aligned with the chunk even if Judge0 returned fewer entries than requested
+    private List<Judge0Response> padToSize(List<Judge0Response> results, int size) {
+        List<Judge0Response> aligned = new ArrayList<>(results.subList(0, Math.min(results.size(), size)));
+        while (aligned.size() < size) {
+            aligned.add(null);
+        }
+        return aligned;
+    }
+
+    // Individual fallback submissions are already finished; only tokens without a terminal status need waiting for
+    private Mono<List<Judge0Response>> awaitResults(List<Judge0Response> submitted, Consumer<Judge0Response> onFinished) {
+        List<String> pending = new ArrayList<>();
+        for (Judge0Response r : submitted) {
+            if (r != null && r.getToken() != null && !isTerminal(r)) {
+                pending.add(r.getToken());
+            }
+        }
+        if (pending.isEmpty()) {
+            return Mono.just(submitted);
+        }
+
+        Mono<List<Judge0Response>> finished = callbacksEnabled()
+                ? awaitCallbacks(pending, onFinished)
+                : pollBatchResultsAsync(pending, onFinished);
+
+        return finished.map(results -> {
+            Map<String, Judge0Response> byToken = new HashMap<>();
+            for (Judge0Response r : results) {
+                if (r != null && r.getToken() != null) {
+                    byToken.put(r.getToken(), r);
                 }
-                fallback.setSubmissions(responses);
-                return fallback;
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new Exception("Failed to submit batch: " + e.getMessage());
+            List<Judge0Response> merged = new ArrayList<>(submitted.size());
+            for (Judge0Response r : submitted) {
+                merged.add(r != null && r.getToken() != null ? byToken.getOrDefault(r.getToken(), r) : r);
+            }
+            return merged;
+        });
+    }
+
+    private Mono<List<Judge0Response>> awaitCallbacks(List<String> tokens, Consumer<Judge0Response> onFinished) {
+        return Mono.defer(() -> {
+            Judge0CallbackRegistry.PendingBatch batch = judge0CallbackRegistry.register(tokens, onFinished);
+            return batch.whenComplete(Duration.ofMillis(callbackWaitMs))
+                    .onErrorResume(TimeoutException.class, timeout -> {
+                        List<String> missing = batch.pendingTokens();
+                        logger.warn("{} of {} Judge0 callbacks missing after {} ms, polling them",
+                                missing.size(), tokens.size(), callbackWaitMs);
+                        return pollBatchResultsAsync(missing, onFinished).map(polled -> {
+                            List<Judge0Response> combined = new ArrayList<>(batch.snapshot());
+                            combined.removeIf(r -> r == null);
+                            combined.addAll(polled);
+                            return combined;
+                        });
+                    })
+                    .doFinally(signal -> judge0CallbackRegistry.release(batch));
+        });
+    }
+
+    // The callback endpoint is public, so callback_url mode requires a shared secret
+    private boolean callbacksEnabled() {
+        return callbackUrl != null && !callbackUrl.isBlank()
+                && callbackSecret != null && !callbackSecret.isBlank();
+    }
+
+    private String callbackUrlWithSecret() {
+        if (!callbacksEnabled()) {
+            return null;
         }
+        return UriComponentsBuilder.fromUriString(callbackUrl)
+                .queryParam("secret", callbackSecret)
+                .toUriString();
     }
-    
+
     // Poll all tokens until they are done (matching the JavaScript implementation)
     public List<Judge0Response> pollBatchResults(List<String> tokens) throws Exception {
-        while (true) {
-            try {
-                HttpHeaders headers = new HttpHeaders();
-                
-                // ✅ FIX 1: Use correct header for Judge0 CE
-                if (suluApiKey != null && !suluApiKey.trim().isEmpty()) {
-                    headers.set("X-Auth-Token", suluApiKey);
-                }
-                
-                // Normalize provided judge0BaseUrl and build batch URL
-                String apiBase = getApiBase();
-                String batchUrl = apiBase + "/api/submissions/batch";
-                
-                ResponseEntity<String> response = restTemplate.exchange(
-                        batchUrl + "?tokens=" + String.join(",", tokens) + "&base64_encoded=false",
-                        HttpMethod.GET,
-                        new HttpEntity<>(headers),
-                        String.class
-                );
-                
-                if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                    // ✅ FIX 4: Safely map JSON to our DTO
-                    Judge0BatchResponse batchResponse = objectMapper.readValue(response.getBody(), Judge0BatchResponse.class);
-                    List<Judge0Response> results = batchResponse.getSubmissions();
-                    
-                    // Check if all submissions are done
-                    boolean isAllDone = results.stream()
-                            .allMatch(r -> r.getStatus().getId() != 1 && r.getStatus().getId() != 2);
-
-                    if (isAllDone) return results;
-                }
-            } catch (Exception e) {
-                System.err.println("Error polling batch results: " + e.getMessage());
+        try {
+            return pollBatchResultsAsync(tokens).block();
+        } catch (Exception e) {
+            throw new Exception("Batch polling failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #pollBatchResults}.
+     *
+     * Polls with a short first delay and then exponential backoff with jitter. Tokens that
+     * reached a terminal status are dropped from later GETs, and tokens still pending when
+     * the per-batch deadline passes are reported as timed out. Results keep the token order.
+     */
+    public Mono<List<Judge0Response>> pollBatchResultsAsync(List<String> tokens) {
+        return pollBatchResultsAsync(tokens, response -> { });
+    }
+
+    private Mono<List<Judge0Response>> pollBatchResultsAsync(List<String> tokens, Consumer<Judge0Response> onFinished) {
+        if (tokens == null || tokens.isEmpty()) {
+            return Mono.just(new ArrayList<>());
+        }
+        long deadline = System.nanoTime() + Duration.ofMillis(pollDeadlineMs).toNanos();
+        Map<String, Judge0Response> finished = new ConcurrentHashMap<>();
+        return pollRound(tokens, finished, pollInitialDelayMs, deadline, onFinished);
+    }
+
+    private Mono<List<Judge0Response>> pollRound(List<String> tokens, Map<String, Judge0Response> finished,
+                                                 long delayMs, long deadline, Consumer<Judge0Response> onFinished) {
+        List<String> pending = tokens.stream()
+                .filter(token -> !finished.containsKey(token))
+                .toList();
+        long remainingMs = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+
+        if (pending.isEmpty()) {
+            return Mono.just(collectInOrder(tokens, finished));
+        }
+        if (remainingMs <= 0) {
+            logger.warn("Polling deadline exceeded with {} of {} submissions still pending", pending.size(), tokens.size());
+            for (String token : pending) {
+                Judge0Response timedOut = timedOutResponse(token);
+                finished.put(token, timedOut);
+                onFinished.accept(timedOut);
             }
+            return Mono.just(collectInOrder(tokens, finished));
+        }
+
+        return Mono.delay(Duration.ofMillis(Math.min(withJitter(delayMs), remainingMs)))
+                .then(judge0RateLimiter.acquire())
+                .then(judge0Client.getBatch(pending))
+                .onErrorResume(e -> {
+                    logger.warn("Error polling batch results: {}", e.getMessage());
+                    return Mono.just(new ArrayList<>());
+                })
+                .flatMap(results -> {
+                    for (Judge0Response r : results) {
+                        if (r != null && r.getToken() != null && isTerminal(r)
+                                && finished.putIfAbsent(r.getToken(), r) == null) {
+                            onFinished.accept(r);
+                        }
+                    }
+                    long nextDelayMs = Math.min((long) (delayMs * pollBackoffMultiplier), pollMaxDelayMs);
+                    return pollRound(tokens, finished, nextDelayMs, deadline, onFinished);
+                });
+    }
 
-            // ✅ FIX 6: Increased delay to avoid rate limiting
+    // Listener failures must not fail the evaluation
+    private BiConsumer<Integer, Judge0Response> guarded(BiConsumer<Integer, Judge0Response> onResult) {
+        return (index, result) -> {
             try {
-                Thread.sleep(1500); // Increased to 1.5 seconds
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new Exception("Batch polling interrupted", e);
+                onResult.accept(index, result);
+            } catch (RuntimeException e) {
+                logger.warn("Result listener failed for index {}: {}", index, e.getMessage());
             }
+        };
+    }
+
+    // Status 1 (In Queue) and 2 (Processing) are the only non-terminal Judge0 statuses
+    private boolean isTerminal(Judge0Response response) {
+        return response.getStatus() != null
+                && response.getStatus().getId() != 1
+                && response.getStatus().getId() != 2;
+    }
+
+    private long withJitter(long delayMs) {
+        double factor = 1.0 + (ThreadLocalRandom.current().nextDouble() * 2 - 1) * pollJitter;
+        return Math.max(1L, (long) (delayMs * factor));
+    }
+
+    private List<Judge0Response> collectInOrder(List<String> tokens, Map<String, Judge0Response> finished) {
+        List<Judge0Response> ordered = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            ordered.add(finished.get(token));
         }
+        return ordered;
+    }
+
+    private Judge0Response timedOutResponse(String token) {
+        Judge0Response.Status status = new Judge0Response.Status();
+        status.setId(POLL_TIMEOUT_STATUS_ID);
+        status.setDescription("Polling deadline exceeded");
+        Judge0Response response = new Judge0Response();
+        response.setToken(token);
+        response.setStatus(status);
+        response.setStderr("Judge0 did not finish this submission within " + pollDeadlineMs + " ms");
+        return response;
     }
     
     // Utility: split into chunks of max 20 for Judge0 batch (matching the JavaScript implementation)
@@ -230,61 +582,14 @@ public class Judge0Service {
         return result;
     }
     
-    private void checkRateLimit() throws Exception {
-        long currentTime = System.currentTimeMillis();
-        
-        // Reset counter if a minute has passed
-        if (currentTime - lastResetTime > 60000) {
-            apiCallCount = 0;
-            lastResetTime = currentTime;
-        }
-        
-        // Check if we've exceeded the rate limit
-        if (apiCallCount >= MAX_CALLS_PER_MINUTE) {
-            long timeToWait = 60000 - (currentTime - lastResetTime);
-            throw new Exception("Rate limit exceeded. Please wait " + (timeToWait / 1000) + " seconds before trying again.");
-        }
-        
-        // ✅ FIX 6: Increased delay to avoid rate limiting
-        if (apiCallCount > 0) {
-            try {
-                Thread.sleep(1500); // Increased to 1.5 seconds
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-
     /**
-     * Normalize the configured Judge0 URL to the API base (scheme://host[:port]).
-     * This allows users to set JUDGE0_API_URL with or without paths like /submissions
-     * and the service will still build proper /api/... endpoints.
+     * How long a new Judge0 call would currently have to wait for admission.
      */
-    private String getApiBase() {
-        try {
-            if (judge0BaseUrl == null || judge0BaseUrl.trim().isEmpty()) {
-                throw new IllegalStateException("judge0.api.url is not configured");
-            }
-            URI uri = new URI(judge0BaseUrl.trim());
-            String scheme = uri.getScheme() != null ? uri.getScheme() : "https";
-            String host = uri.getHost();
-            int port = uri.getPort();
-            StringBuilder sb = new StringBuilder();
-            sb.append(scheme).append("://").append(host);
-            if (port != -1) sb.append(":").append(port);
-            return sb.toString();
-        } catch (URISyntaxException e) {
-            // If parsing fails, attempt a best-effort cleanup
-            String cleaned = judge0BaseUrl.replaceAll("/+$", "");
-            // remove path portion if present
-            int idx = cleaned.indexOf("/");
-            if (idx > 8) { // after https://
-                cleaned = cleaned.substring(0, idx);
-            }
-            return cleaned;
-        }
+    public Duration estimateRateLimitWait() {
+        return judge0RateLimiter.estimateWait();
     }
 
+    @Override
     public int getLanguageId(String language) {
         return switch (language.toLowerCase()) {
             case "python", "py" -> PYTHON_ID;
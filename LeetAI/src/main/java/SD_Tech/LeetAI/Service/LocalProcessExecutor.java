@@ -0,0 +1,468 @@
+package SD_Tech.LeetAI.Service;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import SD_Tech.LeetAI.DTO.Judge0BatchSubmissionRequest;
+import SD_Tech.LeetAI.DTO.Judge0Response;
+import SD_Tech.LeetAI.Entity.OutputComparisonMode;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs Python, Java, C and C++ submissions in local child processes, without isolation.
+ *
+ * Each program is compiled once per batch in a private temp directory and then run once per
+ * test case, with stdin/stdout/stderr redirected to files. CPU time, address space, output
+ * size and core dumps are capped with shell rlimits ({@code ulimit -t/-v/-f/-c}); wall time
+ * is enforced by killing the process tree. Compilers and programs start with an empty
+ * environment apart from PATH and HOME, so the server's credentials are not in their
+ * environment, and compilations share the executor.local.max-parallel process slots with runs.
+ *
+ * This is not a sandbox. Programs run as the server's user, with its filesystem access, its
+ * network and its view of other processes; the rlimits only bound their resource use. Use it
+ * for trusted code, or inside a container or VM that holds nothing else and does the
+ * isolation. Since it cannot protect the host, the bean refuses to start unless
+ * executor.local.acknowledge-no-isolation=true.
+ *
+ * Enabled with executor.backend=local; it then takes precedence over Judge0Service.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "executor.backend", havingValue = "local")
+public class LocalProcessExecutor implements CodeExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalProcessExecutor.class);
+
+    // Judge0 language ids, so requests built for Judge0 run unchanged
+    private static final int PYTHON_ID = 71;
+    private static final int JAVA_ID = 62;
+    private static final int C_ID = 50;
+    private static final int CPP_ID = 54;
+
+    // Judge0 status ids
+    private static final int ACCEPTED = 3;
+    private static final int WRONG_ANSWER = 4;
+    private static final int TIME_LIMIT_EXCEEDED = 5;
+    private static final int COMPILATION_ERROR = 6;
+    private static final int RUNTIME_SIGSEGV = 7;
+    private static final int RUNTIME_SIGXFSZ = 8;
+    private static final int RUNTIME_SIGFPE = 9;
+    private static final int RUNTIME_SIGABRT = 10;
+    private static final int RUNTIME_NZEC = 11;
+    private static final int RUNTIME_OTHER = 12;
+    private static final int INTERNAL_ERROR = 13;
+
+    // Requests carrying expected_output are judged the way Judge0 does, ignoring trailing whitespace
+    private static final OutputComparator OUTPUT_COMPARATOR = new OutputComparator(
+            OutputComparisonMode.IGNORE_TRAILING_WHITESPACE, 0, 0);
+
+    // Defaults for executeCode, which carries no limits (same as Judge0BatchSubmissionRequest)
+    private static final int DEFAULT_CPU_TIME_LIMIT = 2;
+    private static final int DEFAULT_MEMORY_LIMIT_MB = 128;
+
+    @Value("${executor.local.work-dir:${java.io.tmpdir}}")
+    private String workDir;
+
+    @Value("${executor.local.wall-time-multiplier:3}")
+    private int wallTimeMultiplier;
+
+    @Value("${executor.local.compile-timeout-ms:30000}")
+    private long compileTimeoutMs;
+
+    @Value("${executor.local.max-output-bytes:1048576}")
+    private long maxOutputBytes;
+
+    @Value("${executor.local.python-command:python3}")
+    private String pythonCommand;
+
+    @Value("${executor.local.javac-command:javac}")
+    private String javacCommand;
+
+    @Value("${executor.local.java-command:java}")
+    private String javaCommand;
+
+    @Value("${executor.local.c-compiler:gcc}")
+    private String cCompiler;
+
+    @Value("${executor.local.cpp-compiler:g++}")
+    private String cppCompiler;
+
+    // PATH given to compilers and programs; nothing else is inherited from the server
+    @Value("${executor.local.path:/usr/local/bin:/usr/bin:/bin}")
+    private String childPath;
+
+    // ulimit -u, off (0) by default: RLIMIT_NPROC counts every process and thread of the user,
+    // the server's own threads included, so it only bounds programs run as a dedicated user
+    @Value("${executor.local.max-processes:0}")
+    private int maxProcesses;
+
+    // Runs only wait on their child process, so each gets a virtual thread; the semaphore
+    // bounds how many child processes compete for the cores
+    private final ExecutorService runners = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("local-runner-", 0).factory());
+    private final Semaphore processSlots;
+
+    public LocalProcessExecutor(
+            @Value("${executor.local.max-parallel:4}") int maxParallel,
+            @Value("${executor.local.acknowledge-no-isolation:false}") boolean acknowledgeNoIsolation) {
+        if (!acknowledgeNoIsolation) {
+            throw new IllegalStateException("executor.backend=local runs submissions as the server's user without "
+                    + "filesystem, network or process isolation; set executor.local.acknowledge-no-isolation=true "
+                    + "only where that is acceptable (trusted code, or a dedicated container or VM)");
+        }
+        this.processSlots = new Semaphore(Math.max(1, maxParallel));
+        logger.warn("Local process executor enabled with {} parallel runs; submissions run without isolation",
+                Math.max(1, maxParallel));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runners.shutdownNow();
+    }
+
+    @Override
+    public Judge0Response executeCode(String sourceCode, String language, String input) throws Exception {
+        Judge0BatchSubmissionRequest request = new Judge0BatchSubmissionRequest(
+                String.valueOf(getLanguageId(language)), sourceCode, input);
+        request.setCpu_time_limit(DEFAULT_CPU_TIME_LIMIT);
+        request.setMemory_limit(DEFAULT_MEMORY_LIMIT_MB);
+        return runBatch(List.of(request)).get(0);
+    }
+
+    @Override
+    public List<Judge0Response> runBatch(List<Judge0BatchSubmissionRequest> submissions) throws Exception {
+        return runBatch(submissions, (index, result) -> { });
+    }
+
+    @Override
+    public List<Judge0Response> runBatch(List<Judge0BatchSubmissionRequest> submissions,
+                                         BiConsumer<Integer, Judge0Response> onResult) throws Exception {
+        Map<String, Program> programs = new HashMap<>();
+        try {
+            // Compile each distinct program once; a batch is normally one program and many inputs
+            for (Judge0BatchSubmissionRequest request : submissions) {
+                String programKey = request.getLanguage_id() + "\u0000" + request.getSource_code();
+                if (!programs.containsKey(programKey)) {
+                    programs.put(programKey, prepare(request.getLanguage_id(), request.getSource_code()));
+                }
+            }
+
+            List<Future<Judge0Response>> futures = new ArrayList<>(submissions.size());
+            for (int i = 0; i < submissions.size(); i++) {
+                int index = i;
+                Judge0BatchSubmissionRequest request = submissions.get(i);
+                Program program = programs.get(request.getLanguage_id() + "\u0000" + request.getSource_code());
+                futures.add(runners.submit(() -> {
+                    Judge0Response result;
+                    processSlots.acquire();
+                    try {
+                        result = run(program, request);
+                    } finally {
+                        processSlots.release();
+                    }
+                    onResult.accept(index, result);
+                    return result;
+                }));
+            }
+
+            List<Judge0Response> results = new ArrayList<>(futures.size());
+            for (Future<Judge0Response> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            for (Program program : programs.values()) {
+                deleteRecursively(program.directory());
+            }
+        }
+    }
+
+    @Override
+    public int getLanguageId(String language) {
+        return switch (language.toLowerCase()) {
+            case "python", "py" -> PYTHON_ID;
+            case "java" -> JAVA_ID;
+            case "cpp", "c++" -> CPP_ID;
+            case "c" -> C_ID;
+            default -> -1; // not runnable locally; reported per run
+        };
+    }
+
+    private Program prepare(String languageId, String sourceCode) throws IOException {
+        Path directory = Files.createTempDirectory(Path.of(workDir), "local-exec-");
+        int id = parseLanguageId(languageId);
+        switch (id) {
+            case PYTHON_ID -> {
+                Path source = write(directory, "main.py", sourceCode);
+                return new Program(directory, List.of(pythonCommand, source.toString()), null, false);
+            }
+            case JAVA_ID -> {
+                write(directory, "Main.java", sourceCode);
+                String error = compile(directory, List.of(javacCommand, "-encoding", "UTF-8", "Main.java"));
+                // The JVM reserves far more address space than it uses; cap the heap instead of ulimit -v
+                return new Program(directory, List.of(javaCommand, "-Xss64m", "-XX:+UseSerialGC",
+                        "-XX:TieredStopAtLevel=1", "-cp", directory.toString(), "Main"), error, true);
+            }
+            case C_ID -> {
+                write(directory, "main.c", sourceCode);
+                String error = compile(directory, List.of(cCompiler, "-O2", "-o", "main", "main.c", "-lm"));
+                return new Program(directory, List.of(directory.resolve("main").toString()), error, false);
+            }
+            case CPP_ID -> {
+                write(directory, "main.cpp", sourceCode);
+                String error = compile(directory, List.of(cppCompiler, "-O2", "-std=c++17", "-o", "main", "main.cpp"));
+                return new Program(directory, List.of(directory.resolve("main").toString()), error, false);
+            }
+            default -> {
+                return new Program(directory, null, null, false);
+            }
+        }
+    }
+
+    // Returns the compiler output when compilation failed, null on success
+    private String compile(Path directory, List<String> command) throws IOException {
+        Path log = directory.resolve("compile.log");
+        Process process = null;
+        try {
+            processSlots.acquire();
+            try {
+                process = withCleanEnvironment(new ProcessBuilder(command), directory)
+                        .redirectErrorStream(true)
+                        .redirectOutput(log.toFile())
+                        .start();
+                if (!process.waitFor(compileTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    destroyTree(process);
+                    return "Compilation timed out after " + compileTimeoutMs + " ms";
+                }
+            } finally {
+                processSlots.release();
+            }
+        } catch (InterruptedException e) {
+            if (process != null) {
+                destroyTree(process);
+            }
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compiling", e);
+        }
+        return process.exitValue() == 0 ? null : readLimited(log);
+    }
+
+    // Run in the given directory with only PATH and HOME set
+    private ProcessBuilder withCleanEnvironment(ProcessBuilder builder, Path directory) {
+        Map<String, String> environment = builder.environment();
+        environment.clear();
+        environment.put("PATH", childPath);
+        environment.put("HOME", directory.toString());
+        return builder.directory(directory.toFile());
+    }
+
+    private Judge0Response run(Program program, Judge0BatchSubmissionRequest request) {
+        if (program.command() == null) {
+            return response(INTERNAL_ERROR, "Language not supported by the local executor", null,
+                    "language_id " + request.getLanguage_id() + " cannot be run locally", 0L);
+        }
+        if (program.compileError() != null) {
+            Judge0Response response = response(COMPILATION_ERROR, "Compilation Error", null, null, 0L);
+            response.setCompile_output(program.compileError());
+            return response;
+        }
+
+        Path runDirectory = null;
+        Process process = null;
+        try {
+            runDirectory = Files.createTempDirectory(program.directory(), "run-");
+            Path stdin = write(runDirectory, "stdin", request.getStdin() != null ? request.getStdin() : "");
+            Path stdout = runDirectory.resolve("stdout");
+            Path stderr = runDirectory.resolve("stderr");
+
+            int cpuSeconds = Math.max(1, request.getCpu_time_limit());
+            long wallMs = cpuSeconds * 1000L * Math.max(1, wallTimeMultiplier);
+
+            long started = System.nanoTime();
+            process = withCleanEnvironment(new ProcessBuilder(limitedCommand(program, request.getMemory_limit(), cpuSeconds)),
+                    runDirectory)
+                    .redirectInput(stdin.toFile())
+                    .redirectOutput(stdout.toFile())
+                    .redirectError(stderr.toFile())
+                    .start();
+
+            boolean finished = process.waitFor(wallMs, TimeUnit.MILLISECONDS);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            if (!finished) {
+                destroyTree(process);
+                return response(TIME_LIMIT_EXCEEDED, "Time Limit Exceeded", readLimited(stdout), null, elapsedMs);
+            }
+
+            String output = readLimited(stdout);
+            String errors = readLimited(stderr);
+            // Checked first: runtimes like Python ignore SIGXFSZ and fail the write instead
+            if (Files.size(stdout) >= maxOutputBytes) {
+                return response(RUNTIME_SIGXFSZ, describe(RUNTIME_SIGXFSZ), output, "Output limit exceeded", elapsedMs);
+            }
+            int exitCode = process.exitValue();
+            if (exitCode != 0) {
+                int statusId = statusForExitCode(exitCode);
+                return response(statusId, describe(statusId), output, errors, elapsedMs);
+            }
+
+            int statusId = request.getExpected_output() == null || matches(stdout, request.getExpected_output())
+                    ? ACCEPTED : WRONG_ANSWER;
+            return response(statusId, describe(statusId), output, errors, elapsedMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return response(INTERNAL_ERROR, "Internal Error", null, "Interrupted", 0L);
+        } catch (IOException e) {
+            logger.error("Local execution failed: {}", e.getMessage());
+            return response(INTERNAL_ERROR, "Internal Error", null, e.getMessage(), 0L);
+        } finally {
+            if (process != null && process.isAlive()) {
+                destroyTree(process);
+            }
+            if (runDirectory != null) {
+                deleteRecursively(runDirectory);
+            }
+        }
+    }
+
+    // Apply rlimits in a shell, then exec the program so it inherits them
+    private List<String> limitedCommand(Program program, int memoryLimitMb, int cpuSeconds) {
+        int memoryMb = Math.max(16, memoryLimitMb);
+        // ulimit -f counts 512-byte blocks in POSIX shells
+        long outputBlocks = Math.max(1, maxOutputBytes / 512 + 1);
+        StringBuilder script = new StringBuilder()
+                .append("ulimit -t ").append(cpuSeconds)
+                .append(" && ulimit -f ").append(outputBlocks)
+                .append(" && ulimit -c 0");
+        if (maxProcesses > 0) {
+            script.append(" && ulimit -u ").append(maxProcesses);
+        }
+        if (!program.managedHeap()) {
+            script.append(" && ulimit -v ").append(memoryMb * 1024L);
+        }
+        script.append(" && exec \"$@\"");
+
+        List<String> command = new ArrayList<>(List.of("/bin/sh", "-c", script.toString(), "local-exec"));
+        command.add(program.command().get(0));
+        if (program.managedHeap()) {
+            command.add("-Xmx" + memoryMb + "m");
+        }
+        command.addAll(program.command().subList(1, program.command().size()));
+        return command;
+    }
+
+    // Exit codes above 128 mean the program was killed by signal (code - 128)
+    private int statusForExitCode(int exitCode) {
+        return switch (exitCode - 128) {
+            case 24, 9 -> TIME_LIMIT_EXCEEDED; // SIGXCPU from ulimit -t, SIGKILL after it
+            case 25 -> RUNTIME_SIGXFSZ;
+            case 11 -> RUNTIME_SIGSEGV;
+            case 8 -> RUNTIME_SIGFPE;
+            case 6 -> RUNTIME_SIGABRT;
+            default -> exitCode > 128 ? RUNTIME_OTHER : RUNTIME_NZEC;
+        };
+    }
+
+    private String describe(int statusId) {
+        return switch (statusId) {
+            case ACCEPTED -> "Accepted";
+            case WRONG_ANSWER -> "Wrong Answer";
+            case TIME_LIMIT_EXCEEDED -> "Time Limit Exceeded";
+            case RUNTIME_SIGSEGV -> "Runtime Error (SIGSEGV)";
+            case RUNTIME_SIGXFSZ -> "Runtime Error (SIGXFSZ)";
+            case RUNTIME_SIGFPE -> "Runtime Error (SIGFPE)";
+            case RUNTIME_SIGABRT -> "Runtime Error (SIGABRT)";
+            case RUNTIME_NZEC -> "Runtime Error (NZEC)";
+            default -> "Runtime Error (Other)";
+        };
+    }
+
+    // Judge0 compares outputs ignoring trailing whitespace
+    // Compared from the output file, so output beyond what is returned is still checked
+    private boolean matches(Path actual, String expected) throws IOException {
+        if (!Files.exists(actual)) {
+            return OUTPUT_COMPARATOR.matches("", expected);
+        }
+        try (Reader in = new BufferedReader(new InputStreamReader(Files.newInputStream(actual), StandardCharsets.UTF_8))) {
+            return OUTPUT_COMPARATOR.matches(in, new StringReader(expected));
+        }
+    }
+
+    private Judge0Response response(int statusId, String description, String stdout, String stderr, long timeMs) {
+        Judge0Response.Status status = new Judge0Response.Status();
+        status.setId(statusId);
+        status.setDescription(description);
+        Judge0Response response = new Judge0Response();
+        response.setStatus(status);
+        response.setStdout(stdout);
+        response.setStderr(stderr);
+        response.setTime(timeMs);
+        return response;
+    }
+
+    private Path write(Path directory, String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content != null ? content : "", StandardCharsets.UTF_8);
+    }
+
+    private String readLimited(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] bytes = in.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxOutputBytes));
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private int parseLanguageId(String languageId) {
+        try {
+            return Integer.parseInt(languageId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            logger.warn("Could not clean up executor directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    // A prepared program: its directory, the run command (null if the language is unsupported)
+    // and the compiler output if compilation failed
+    private record Program(Path directory, List<String> command, String compileError, boolean managedHeap) {
+    }
+}
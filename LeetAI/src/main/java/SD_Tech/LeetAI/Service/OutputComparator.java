@@ -0,0 +1,192 @@
+package SD_Tech.LeetAI.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.regex.Pattern;
+
+import SD_Tech.LeetAI.Entity.OutputComparisonMode;
+import SD_Tech.LeetAI.Entity.Problem;
+
+/**
+ * Compares program output with an expected output in one of the {@link OutputComparisonMode}s.
+ *
+ * Both sides are consumed as character streams, so a large output is compared as it is read
+ * and never held in memory as a whole; only the current token (TOKEN and FLOAT) or the
+ * current run of whitespace (IGNORE_TRAILING_WHITESPACE) is buffered. Callers should pass
+ * buffered readers.
+ */
+public final class OutputComparator {
+
+    public static final OutputComparisonMode DEFAULT_MODE = OutputComparisonMode.IGNORE_TRAILING_WHITESPACE;
+    public static final double DEFAULT_ABSOLUTE_TOLERANCE = 1e-6;
+    public static final double DEFAULT_RELATIVE_TOLERANCE = 1e-6;
+
+    // Plain decimal numbers only; Double.parseDouble would also take "NaN", "1d" or hex floats
+    private static final Pattern NUMBER = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+
+    private final OutputComparisonMode mode;
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+
+    public OutputComparator(OutputComparisonMode mode, double absoluteTolerance, double relativeTolerance) {
+        this.mode = mode != null ? mode : DEFAULT_MODE;
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+    }
+
+    /**
+     * Comparator configured by the problem's comparison settings, with defaults for unset ones.
+     */
+    public static OutputComparator forProblem(Problem problem) {
+        if (problem == null) {
+            return new OutputComparator(DEFAULT_MODE, DEFAULT_ABSOLUTE_TOLERANCE, DEFAULT_RELATIVE_TOLERANCE);
+        }
+        return new OutputComparator(problem.getOutputComparisonMode(),
+                problem.getAbsoluteTolerance() != null ? problem.getAbsoluteTolerance() : DEFAULT_ABSOLUTE_TOLERANCE,
+                problem.getRelativeTolerance() != null ? problem.getRelativeTolerance() : DEFAULT_RELATIVE_TOLERANCE);
+    }
+
+    public OutputComparisonMode getMode() {
+        return mode;
+    }
+
+    public boolean matches(String actual, String expected) {
+        try {
+            return matches(new StringReader(actual != null ? actual : ""), new StringReader(expected != null ? expected : ""));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by StringReader
+        }
+    }
+
+    public boolean matches(Reader actual, Reader expected) throws IOException {
+        switch (mode) {
+            case EXACT:
+                return sameChars(actual, expected);
+            case IGNORE_TRAILING_WHITESPACE:
+                return sameChars(new TrailingWhitespaceSkipper(actual), new TrailingWhitespaceSkipper(expected));
+            case TOKEN:
+            case FLOAT:
+            default:
+                return sameTokens(new Tokenizer(actual), new Tokenizer(expected));
+        }
+    }
+
+    private interface CharSource {
+        int read() throws IOException;
+    }
+
+    private static boolean sameChars(Reader actual, Reader expected) throws IOException {
+        return sameChars(actual::read, expected::read);
+    }
+
+    private static boolean sameChars(CharSource actual, CharSource expected) throws IOException {
+        while (true) {
+            int a = actual.read();
+            if (a != expected.read()) {
+                return false;
+            }
+            if (a < 0) {
+                return true;
+            }
+        }
+    }
+
+    private boolean sameTokens(Tokenizer actual, Tokenizer expected) throws IOException {
+        while (true) {
+            String a = actual.next();
+            String e = expected.next();
+            if (a == null || e == null) {
+                return a == e;
+            }
+            if (!a.equals(e) && !(mode == OutputComparisonMode.FLOAT && numericallyClose(a, e))) {
+                return false;
+            }
+        }
+    }
+
+    private boolean numericallyClose(String actual, String expected) {
+        if (!NUMBER.matcher(actual).matches() || !NUMBER.matcher(expected).matches()) {
+            return false;
+        }
+        double a = Double.parseDouble(actual);
+        double e = Double.parseDouble(expected);
+        if (Double.isInfinite(a) || Double.isInfinite(e)) {
+            return a == e;
+        }
+        return Math.abs(a - e) <= Math.max(absoluteTolerance, relativeTolerance * Math.abs(e));
+    }
+
+    /**
+     * Reads a stream with whitespace before each line break and at the end removed. Pending
+     * whitespace is kept as the number of line breaks plus the run after the last one.
+     */
+    private static final class TrailingWhitespaceSkipper implements CharSource {
+
+        private final Reader in;
+        private final StringBuilder run = new StringBuilder();
+        private int pendingNewlines;
+        private int runPosition;
+        private int next = -2; // first non-whitespace character after the pending whitespace
+
+        TrailingWhitespaceSkipper(Reader in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (next == -2) {
+                run.setLength(0);
+                runPosition = 0;
+                int c;
+                while ((c = in.read()) >= 0 && Character.isWhitespace(c)) {
+                    if (c == '\n') {
+                        pendingNewlines++;
+                        run.setLength(0);
+                    } else {
+                        run.append((char) c);
+                    }
+                }
+                if (c < 0) {
+                    return -1; // only trailing whitespace was left
+                }
+                next = c;
+            }
+            if (pendingNewlines > 0) {
+                pendingNewlines--;
+                return '\n';
+            }
+            if (runPosition < run.length()) {
+                return run.charAt(runPosition++);
+            }
+            int c = next;
+            next = -2;
+            return c;
+        }
+    }
+
+    private static final class Tokenizer {
+
+        private final Reader in;
+        private final StringBuilder token = new StringBuilder();
+
+        Tokenizer(Reader in) {
+            this.in = in;
+        }
+
+        // Next whitespace-separated token, or null at the end of the stream
+        String next() throws IOException {
+            token.setLength(0);
+            int c;
+            while ((c = in.read()) >= 0 && Character.isWhitespace(c)) {
+                // skip separators
+            }
+            while (c >= 0 && !Character.isWhitespace(c)) {
+                token.append((char) c);
+                c = in.read();
+            }
+            return token.length() > 0 ? token.toString() : null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package SD_Tech.LeetAI.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived cache of problem counts for the X-Total-Count header, so paging through the
+ * catalog does not run a COUNT(*) per page. Entries expire after problems.count-cache.ttl-ms
+ * and are dropped whenever a problem is created or deleted on this node.
+ */
+@Component
+public class ProblemCountCache {
+
+    private record Entry(long count, long expiresAtMs) {
+    }
+
+    @Value("${problems.count-cache.ttl-ms:60000}")
+    private long ttlMs = 60000;
+
+    private final Map<String, Entry> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Cached count for {@code key} (e.g. "all" or "difficulty:EASY"), computed with {@code counter} when missing or expired.
+     */
+    public long count(String key, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        Entry entry = counts.get(key);
+        if (entry == null || entry.expiresAtMs() <= now) {
+            // Concurrent misses may both count; either result is fine
+            entry = new Entry(counter.getAsLong(), now + ttlMs);
+            counts.put(key, entry);
+        }
+        return entry.count();
+    }
+
+    public void invalidate() {
+        counts.clear();
+    }
+}
@@ -0,0 +1,335 @@
+package SD_Tech.LeetAI.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import SD_Tech.LeetAI.Entity.Problem;
+import SD_Tech.LeetAI.Entity.Tag;
+import SD_Tech.LeetAI.Repository.ProblemRepository;
+
+/**
+ * In-process inverted index over problem titles, descriptions and tags.
+ *
+ * Terms are kept in a sorted map so every query term also matches the terms it is a prefix
+ * of. A problem must match all query terms; matches are ranked by tf-idf with title and tag
+ * occurrences weighted above description text, and exact term matches above prefix matches.
+ * Difficulty and tag filters are applied on the indexed copy.
+ *
+ * ProblemController keeps the index current on create, update and delete, applying changes
+ * once the transaction commits. A full rebuild from the database runs at startup and every
+ * problems.search.refresh-interval-ms, which also picks up changes made on other nodes.
+ */
+@Component
+public class ProblemSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProblemSearchIndex.class);
+
+    static final float TITLE_WEIGHT = 3f;
+    static final float TAG_WEIGHT = 2f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+    static final float PREFIX_MATCH_WEIGHT = 0.5f;
+
+    // Terms a prefix may expand to, so a one-letter query stays cheap
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "to", "with");
+
+    /**
+     * Indexed copy of a problem: filter fields and weighted term frequencies.
+     */
+    record Document(Long id, String difficulty, Set<String> tags, Map<String, Float> terms) {
+    }
+
+    /**
+     * One ranked hit.
+     */
+    public record Hit(Long problemId, double score) {
+    }
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Map<Long, Document> documents = new HashMap<>();
+    private TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private List<Object> changedDuringRebuild;
+
+    /**
+     * Index a created or updated problem once the current transaction commits (immediately
+     * when there is none). Tags must be loaded.
+     */
+    public void update(Problem problem) {
+        List<String> tags = problem.getTags() == null ? List.of()
+                : problem.getTags().stream().map(Tag::getName).collect(Collectors.toList());
+        Document document = document(problem.getId(), problem.getTitle(), problem.getDescription(),
+                problem.getDifficulty(), tags);
+        afterCommit(() -> apply(document));
+    }
+
+    /**
+     * Drop a deleted problem once the current transaction commits.
+     */
+    public void remove(Long problemId) {
+        afterCommit(() -> apply(problemId));
+    }
+
+    /**
+     * Problems matching every term of {@code query} (all problems for a blank query) and the
+     * optional difficulty and tag filters, best first. A blank query lists matches by id.
+     */
+    public List<Hit> search(String query, String difficulty, Collection<String> tags) {
+        List<String> queryTerms = tokenize(query == null ? "" : query);
+        Set<String> requiredTags = tags == null ? Set.of()
+                : tags.stream().map(ProblemSearchIndex::normalize).collect(Collectors.toSet());
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : new HashSet<>(queryTerms)) {
+                Map<Long, Double> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>();
+            Collection<Long> candidates = scores != null ? scores.keySet() : documents.keySet();
+            for (Long id : candidates) {
+                Document document = documents.get(id);
+                if (difficulty != null && !difficulty.equalsIgnoreCase(document.difficulty())) {
+                    continue;
+                }
+                if (!document.tags().containsAll(requiredTags)) {
+                    continue;
+                }
+                hits.add(new Hit(id, scores != null ? scores.get(id) : 0));
+            }
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::problemId));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild the index from the problems table, one page at a time, then swap it in. Changes
+     * applied while the rebuild runs are replayed on top of the new index.
+     */
+    @Scheduled(fixedDelayString = "${problems.search.refresh-interval-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Document> newDocuments = new HashMap<>();
+        TreeMap<String, Map<Long, Float>> newPostings = new TreeMap<>();
+        try {
+            long afterId = 0;
+            while (true) {
+                List<ProblemRepository.SearchView> page =
+                        problemRepository.findSearchPage(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                Map<Long, List<String>> tagsById = new HashMap<>();
+                List<Long> ids = page.stream().map(ProblemRepository.SearchView::getId).collect(Collectors.toList());
+                for (ProblemRepository.TagNameView tag : problemRepository.findTagNamesByProblemIdIn(ids)) {
+                    tagsById.computeIfAbsent(tag.getProblemId(), id -> new ArrayList<>()).add(tag.getName());
+                }
+                for (ProblemRepository.SearchView problem : page) {
+                    add(newDocuments, newPostings, document(problem.getId(), problem.getTitle(),
+                            problem.getDescription(), problem.getDifficulty(),
+                            tagsById.getOrDefault(problem.getId(), List.of())));
+                }
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Rebuilding the problem search index failed: {}", e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<Object> replay = changedDuringRebuild;
+            changedDuringRebuild = null;
+            documents = newDocuments;
+            postings = newPostings;
+            for (Object change : replay) {
+                if (change instanceof Document document) {
+                    apply(document);
+                } else {
+                    apply((Long) change);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Indexed {} problems for search in {} ms", newDocuments.size(), System.currentTimeMillis() - start);
+    }
+
+    // Score of every document containing the term or, for terms of two or more characters, a term it prefixes
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<String, Map<Long, Float>> matches = term.length() < 2
+                ? (postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of())
+                : postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> match : matches.entrySet()) {
+            if (expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            double idf = Math.log(1 + (double) documents.size() / match.getValue().size());
+            double weight = match.getKey().equals(term) ? 1 : PREFIX_MATCH_WEIGHT;
+            for (Map.Entry<Long, Float> posting : match.getValue().entrySet()) {
+                double score = (1 + Math.log(posting.getValue())) * idf * weight;
+                scores.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void apply(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.id());
+            add(documents, postings, document);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Long problemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(problemId);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(problemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long problemId) {
+        Document old = documents.remove(problemId);
+        if (old == null) {
+            return;
+        }
+        for (String term : old.terms().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(problemId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void add(Map<Long, Document> documents, TreeMap<String, Map<Long, Float>> postings, Document document) {
+        documents.put(document.id(), document);
+        document.terms().forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id(), weight));
+    }
+
+    static Document document(Long id, String title, String description, String difficulty, Collection<String> tags) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        Set<String> tagNames = new HashSet<>();
+        for (String tag : tags) {
+            tagNames.add(normalize(tag));
+            addTerms(terms, tag, TAG_WEIGHT);
+        }
+        return new Document(id, difficulty, tagNames, terms);
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        if (text != null) {
+            for (String term : tokenize(text)) {
+                terms.merge(term, weight, Float::sum);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
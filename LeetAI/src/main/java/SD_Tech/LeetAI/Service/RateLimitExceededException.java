@@ -0,0 +1,20 @@
+package SD_Tech.LeetAI.Service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a permit cannot be granted within the allowed wait.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        super("Rate limit exceeded. Please wait " + Math.max(1, retryAfter.toSeconds()) + " seconds before trying again.");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,42 @@
+package SD_Tech.LeetAI.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the stats tables on a background thread after startup when judged submissions
+ * exist that were never counted, e.g. the history from before the tables existed.
+ */
+@Component
+public class StatsBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsBackfill.class);
+
+    @Autowired
+    private StatsService statsService;
+
+    @Value("${stats.backfill-on-startup:true}")
+    private boolean enabled = true;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            Thread.ofVirtual().name("stats-backfill").start(this::backfill);
+        }
+    }
+
+    void backfill() {
+        try {
+            if (statsService.hasUnrecordedVerdicts()) {
+                statsService.rebuild();
+            }
+        } catch (RuntimeException e) {
+            logger.error("Stats backfill failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package SD_Tech.LeetAI.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import SD_Tech.LeetAI.Entity.Submission;
+
+/**
+ * Incrementally maintained dashboard aggregates: user_problem_stats, problem_stats, user_stats
+ * and user_language_stats.
+ *
+ * Each judged verdict (PASSED or FAILED) is counted by {@link #record} in the transaction that
+ * stores it, so reads never scan submissions. Evaluation errors are not attempts and are not
+ * counted. The submission's stats_recorded flag is claimed first, which makes recording
+ * idempotent when an evaluation is retried. {@link #rebuild} recomputes everything from the
+ * submissions table for backfills and repairs.
+ *
+ * The upserts use PostgreSQL's INSERT ... ON CONFLICT.
+ */
+@Service
+public class StatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsService.class);
+
+    private static final String CLAIM_SQL =
+            "UPDATE submissions SET stats_recorded = true WHERE id = ? AND stats_recorded = false";
+
+    // Returns the row after the update; attempts = 1 means a first attempt, accepted = 1 on an
+    // accepted verdict means a first solve. The row lock serializes a user's verdicts per problem.
+    private static final String USER_PROBLEM_SQL = "INSERT INTO user_problem_stats AS s "
+            + "(user_id, problem_id, attempts, accepted, first_solved_at, best_runtime_ms, last_submitted_at) "
+            + "VALUES (?, ?, 1, ?, ?, ?, ?) "
+            + "ON CONFLICT (user_id, problem_id) DO UPDATE SET "
+            + "attempts = s.attempts + 1, "
+            + "accepted = s.accepted + EXCLUDED.accepted, "
+            + "first_solved_at = COALESCE(s.first_solved_at, EXCLUDED.first_solved_at), "
+            + "best_runtime_ms = LEAST(s.best_runtime_ms, EXCLUDED.best_runtime_ms), "
+            + "last_submitted_at = GREATEST(s.last_submitted_at, EXCLUDED.last_submitted_at) "
+            + "RETURNING s.attempts, s.accepted";
+
+    private static final String PROBLEM_SQL = "INSERT INTO problem_stats AS s "
+            + "(problem_id, judged, accepted, attempted_by, solved_by) VALUES (?, 1, ?, ?, ?) "
+            + "ON CONFLICT (problem_id) DO UPDATE SET "
+            + "judged = s.judged + 1, accepted = s.accepted + EXCLUDED.accepted, "
+            + "attempted_by = s.attempted_by + EXCLUDED.attempted_by, solved_by = s.solved_by + EXCLUDED.solved_by";
+
+    private static final String USER_SQL = "INSERT INTO user_stats AS s "
+            + "(user_id, judged, accepted, attempted_problems, solved_problems) VALUES (?, 1, ?, ?, ?) "
+            + "ON CONFLICT (user_id) DO UPDATE SET "
+            + "judged = s.judged + 1, accepted = s.accepted + EXCLUDED.accepted, "
+            + "attempted_problems = s.attempted_problems + EXCLUDED.attempted_problems, "
+            + "solved_problems = s.solved_problems + EXCLUDED.solved_problems";
+
+    private static final String USER_LANGUAGE_SQL = "INSERT INTO user_language_stats AS s "
+            + "(user_id, language, judged, accepted) VALUES (?, ?, 1, ?) "
+            + "ON CONFLICT (user_id, language) DO UPDATE SET "
+            + "judged = s.judged + 1, accepted = s.accepted + EXCLUDED.accepted";
+
+    // Rebuild: flag the judged submissions, then recompute every table from the flagged set.
+    // The stats tables are locked before they are cleared, so verdicts recorded concurrently
+    // wait and are counted on top of the rebuilt rows instead of being lost or doubled.
+    private static final String FLAG_ALL_SQL = "UPDATE submissions SET stats_recorded = true "
+            + "WHERE stats_recorded = false AND status IN ('PASSED', 'FAILED') "
+            + "AND user_id IS NOT NULL AND problem_id IS NOT NULL";
+
+    private static final String LOCK_SQL =
+            "LOCK TABLE user_problem_stats, problem_stats, user_stats, user_language_stats IN EXCLUSIVE MODE";
+
+    private static final String[] CLEAR_SQL = {
+            "DELETE FROM user_language_stats",
+            "DELETE FROM user_stats",
+            "DELETE FROM problem_stats",
+            "DELETE FROM user_problem_stats"
+    };
+
+    private static final String REBUILD_USER_PROBLEM_SQL = "INSERT INTO user_problem_stats "
+            + "(user_id, problem_id, attempts, accepted, first_solved_at, best_runtime_ms, last_submitted_at) "
+            + "SELECT user_id, problem_id, COUNT(*), COUNT(*) FILTER (WHERE status = 'PASSED'), "
+            + "MIN(COALESCE(submission_time, LOCALTIMESTAMP)) FILTER (WHERE status = 'PASSED'), "
+            + "MIN(runtime_ms) FILTER (WHERE status = 'PASSED'), MAX(submission_time) "
+            + "FROM submissions WHERE stats_recorded = true GROUP BY user_id, problem_id";
+
+    private static final String[] REBUILD_DERIVED_SQL = {
+            "INSERT INTO problem_stats (problem_id, judged, accepted, attempted_by, solved_by) "
+                    + "SELECT problem_id, SUM(attempts), SUM(accepted), COUNT(*), COUNT(*) FILTER (WHERE accepted > 0) "
+                    + "FROM user_problem_stats GROUP BY problem_id",
+            "INSERT INTO user_stats (user_id, judged, accepted, attempted_problems, solved_problems) "
+                    + "SELECT user_id, SUM(attempts), SUM(accepted), COUNT(*), COUNT(*) FILTER (WHERE accepted > 0) "
+                    + "FROM user_problem_stats GROUP BY user_id",
+            "INSERT INTO user_language_stats (user_id, language, judged, accepted) "
+                    + "SELECT user_id, LOWER(language), COUNT(*), COUNT(*) FILTER (WHERE status = 'PASSED') "
+                    + "FROM submissions WHERE stats_recorded = true AND language IS NOT NULL "
+                    + "GROUP BY user_id, LOWER(language)"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Count a judged verdict into the stats tables. Must run in the transaction that stores the
+     * verdict; does nothing for other statuses or when the submission was already counted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Submission submission) {
+        boolean accepted = "PASSED".equals(submission.getStatus());
+        if (!accepted && !"FAILED".equals(submission.getStatus())) {
+            return;
+        }
+        if (submission.getUser() == null || submission.getProblem() == null
+                || jdbcTemplate.update(CLAIM_SQL, submission.getId()) == 0) {
+            return;
+        }
+
+        Long userId = submission.getUser().getId();
+        Long problemId = submission.getProblem().getId();
+        LocalDateTime submittedAt = submission.getSubmissionTime() != null
+                ? submission.getSubmissionTime() : LocalDateTime.now();
+        int acceptedCount = accepted ? 1 : 0;
+
+        long[] row = jdbcTemplate.queryForObject(USER_PROBLEM_SQL,
+                (rs, rowNum) -> new long[] { rs.getLong(1), rs.getLong(2) },
+                userId, problemId, acceptedCount,
+                accepted ? Timestamp.valueOf(submittedAt) : null,
+                accepted ? submission.getRuntimeMs() : null,
+                Timestamp.valueOf(submittedAt));
+        int firstAttempt = row[0] == 1 ? 1 : 0;
+        int firstSolve = accepted && row[1] == 1 ? 1 : 0;
+
+        jdbcTemplate.update(PROBLEM_SQL, problemId, acceptedCount, firstAttempt, firstSolve);
+        jdbcTemplate.update(USER_SQL, userId, acceptedCount, firstAttempt, firstSolve);
+        if (submission.getLanguage() != null) {
+            jdbcTemplate.update(USER_LANGUAGE_SQL, userId,
+                    submission.getLanguage().toLowerCase(Locale.ROOT), acceptedCount);
+        }
+    }
+
+    /**
+     * Recompute all stats tables from the submissions table in one transaction.
+     * Returns the number of user/problem pairs written.
+     */
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        Integer pairs = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(FLAG_ALL_SQL);
+            jdbcTemplate.execute(LOCK_SQL);
+            for (String sql : CLEAR_SQL) {
+                jdbcTemplate.update(sql);
+            }
+            int written = jdbcTemplate.update(REBUILD_USER_PROBLEM_SQL);
+            for (String sql : REBUILD_DERIVED_SQL) {
+                jdbcTemplate.update(sql);
+            }
+            return written;
+        });
+        logger.info("Rebuilt stats for {} user/problem pairs in {} ms", pairs, System.currentTimeMillis() - start);
+        return pairs != null ? pairs : 0;
+    }
+
+    /**
+     * Whether judged submissions exist that were never counted, e.g. from before the stats tables.
+     */
+    public boolean hasUnrecordedVerdicts() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM submissions WHERE stats_recorded = false "
+                        + "AND status IN ('PASSED', 'FAILED') AND user_id IS NOT NULL AND problem_id IS NOT NULL)",
+                Boolean.class));
+    }
+}
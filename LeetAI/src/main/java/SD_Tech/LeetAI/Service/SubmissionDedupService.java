@@ -0,0 +1,226 @@
+package SD_Tech.LeetAI.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import SD_Tech.LeetAI.Entity.Submission;
+import SD_Tech.LeetAI.Repository.SubmissionRepository;
+
+/**
+ * Collapses repeated submissions into the first one.
+ *
+ * A submission is a repeat when it carries an Idempotency-Key the same user already used, or
+ * when the same user sends the same code in the same language for the same problem within
+ * submission.dedup.window-seconds of an earlier one. The second case uses a dedup key made of
+ * the SHA-256 of those fields plus the index of the fixed window of that length the submission
+ * falls in. A repeat is looked up under the current window's key and the previous one's; the
+ * latter only counts while that submission is less than window-seconds old, so a repeat just
+ * after a window boundary is still caught.
+ *
+ * The hash of the payload is stored next to the Idempotency-Key. Reusing a key with a
+ * different problem, language or code is refused rather than answered with the old submission.
+ *
+ * Both keys are unique columns of the submissions table, which makes the check hold across
+ * nodes: of two concurrent inserts one fails and resolves to the winner. For the dedup key
+ * that holds within one window; two concurrent sends on either side of a boundary can both be
+ * stored. A bounded in-memory index in front of the table answers most repeats without a query.
+ */
+@Service
+public class SubmissionDedupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionDedupService.class);
+
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${submission.dedup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${submission.dedup.window-seconds:10}")
+    private long windowSeconds = 10;
+
+    // Same zone as the submission times it is compared with
+    private Clock clock = Clock.systemDefaultZone();
+
+    // Key -> submission id; access-ordered, so guarded by a lock rather than a monitor
+    private final Map<String, Long> index;
+    private final ReentrantLock indexLock = new ReentrantLock();
+
+    public SubmissionDedupService(@Value("${submission.dedup.index-size:10000}") int indexSize) {
+        this.index = new LinkedHashMap<>(Math.min(indexSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > indexSize;
+            }
+        };
+    }
+
+    /**
+     * Idempotency keys are scoped to the user, so two users can pick the same one.
+     */
+    public String idempotencyKey(Long userId, String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        if (key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        return userId + ":" + key.trim();
+    }
+
+    /**
+     * Hash of what an idempotent request asks for, or null when it carries no key.
+     */
+    public String payloadHash(String idempotencyKey, Long problemId, String language, String code) {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        return hash(String.valueOf(problemId), language, code);
+    }
+
+    /**
+     * Dedup key for a submission sent now, or null when automatic dedup is off.
+     */
+    public String dedupKey(Long userId, Long problemId, String language, String code) {
+        if (!enabled || windowSeconds <= 0) {
+            return null;
+        }
+        long window = clock.millis() / (windowSeconds * 1000);
+        return hash(String.valueOf(userId), String.valueOf(problemId), language, code) + ":" + window;
+    }
+
+    /**
+     * The earlier submission with either key, if any.
+     *
+     * @throws IdempotencyKeyReusedException when the idempotency key belongs to a submission
+     *         with a different payload
+     */
+    public Optional<Submission> findExisting(String idempotencyKey, String payloadHash, String dedupKey) {
+        if (idempotencyKey != null) {
+            Optional<Submission> existing = find(idempotencyKey, submissionRepository::findByIdempotencyKey);
+            if (existing.isPresent()) {
+                checkPayload(existing.get(), payloadHash);
+                return existing;
+            }
+        }
+        if (dedupKey != null) {
+            Optional<Submission> existing = find(dedupKey, submissionRepository::findByDedupKey);
+            if (existing.isPresent()) {
+                return existing;
+            }
+            return find(previousWindowKey(dedupKey), submissionRepository::findByDedupKey)
+                    .filter(this::withinWindow);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Insert the submission in its own transaction and run {@code onInserted} in it. When a
+     * concurrent request inserted a submission with the same key first, that one is returned
+     * instead and {@code onInserted} does not run.
+     */
+    public Submission insertOnce(Submission submission, Consumer<Submission> onInserted) {
+        try {
+            Submission saved = transactionTemplate.execute(status -> {
+                Submission inserted = submissionRepository.saveAndFlush(submission);
+                onInserted.accept(inserted);
+                return inserted;
+            });
+            remember(saved.getIdempotencyKey(), saved.getId());
+            remember(saved.getDedupKey(), saved.getId());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            Optional<Submission> winner = findExisting(submission.getIdempotencyKey(),
+                    submission.getIdempotencyPayloadHash(), submission.getDedupKey());
+            if (winner.isEmpty()) {
+                throw e;
+            }
+            logger.info("Concurrent duplicate of submission {} discarded", winner.get().getId());
+            return winner.get();
+        }
+    }
+
+    private static String previousWindowKey(String dedupKey) {
+        int separator = dedupKey.lastIndexOf(':');
+        long window = Long.parseLong(dedupKey.substring(separator + 1));
+        return dedupKey.substring(0, separator + 1) + (window - 1);
+    }
+
+    private boolean withinWindow(Submission earlier) {
+        return earlier.getSubmissionTime() != null
+                && earlier.getSubmissionTime().isAfter(LocalDateTime.now(clock).minusSeconds(windowSeconds));
+    }
+
+    // Rows written before the hash was stored have none and are accepted as before
+    private static void checkPayload(Submission existing, String payloadHash) {
+        String stored = existing.getIdempotencyPayloadHash();
+        if (stored != null && !stored.equals(payloadHash)) {
+            throw new IdempotencyKeyReusedException(existing.getId());
+        }
+    }
+
+    private Optional<Submission> find(String key, Function<String, Optional<Submission>> lookup) {
+        Long id;
+        indexLock.lock();
+        try {
+            id = index.get(key);
+        } finally {
+            indexLock.unlock();
+        }
+        Optional<Submission> existing = id != null ? submissionRepository.findById(id) : lookup.apply(key);
+        existing.ifPresent(s -> remember(key, s.getId()));
+        return existing;
+    }
+
+    private void remember(String key, Long submissionId) {
+        if (key == null) {
+            return;
+        }
+        indexLock.lock();
+        try {
+            index.put(key, submissionId);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private static String hash(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                byte[] bytes = part != null ? part.getBytes(StandardCharsets.UTF_8) : new byte[0];
+                // Length prefix keeps ("ab", "c") and ("a", "bc") apart
+                digest.update(ByteBuffer.allocate(4).putInt(part != null ? bytes.length : -1).array());
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package SD_Tech.LeetAI.Service;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import SD_Tech.LeetAI.DTO.TestCaseResultDTO;
+import SD_Tech.LeetAI.Entity.Submission;
+import SD_Tech.LeetAI.Repository.SubmissionRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes evaluation progress to clients over Server-Sent Events.
+ *
+ * Events per submission: {@code status} on transitions, {@code testcase} for each result as the
+ * executor reports it (event id = test case index), and a final {@code verdict} after which the
+ * stream completes. Evaluation may run on another node, so open streams are also swept
+ * periodically and completed from the database once their submission has finished.
+ *
+ * Each client stream sends its events one at a time in publish order: events are queued per
+ * stream and drained by at most one sender task, which completes the stream after the verdict.
+ */
+@Service
+public class SubmissionEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionEventPublisher.class);
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Value("${submission.events.timeout-ms:300000}")
+    private long timeoutMs;
+
+    private final Map<Long, List<ClientStream>> streamsBySubmission = new ConcurrentHashMap<>();
+
+    // Sends never run on the executor's event loop or the evaluation thread
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-sender-", 0).factory());
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Open a stream for a submission. A finished submission gets its verdict right away.
+     */
+    public SseEmitter subscribe(Long submissionId) {
+        ClientStream stream = new ClientStream(createEmitter());
+        SseEmitter emitter = stream.emitter;
+        // Register before reading the status so a verdict published in between is not lost
+        streamsBySubmission.computeIfAbsent(submissionId, id -> new CopyOnWriteArrayList<>()).add(stream);
+        emitter.onCompletion(() -> remove(submissionId, stream));
+        emitter.onTimeout(() -> remove(submissionId, stream));
+        emitter.onError(e -> remove(submissionId, stream));
+
+        SubmissionRepository.StatusView view = submissionRepository.findStatusById(submissionId).orElse(null);
+        if (view == null) {
+            remove(submissionId, stream);
+            emitter.completeWithError(new IllegalArgumentException("Submission not found with id: " + submissionId));
+        } else if (isFinished(view.getStatus())) {
+            remove(submissionId, stream);
+            stream.push(SseEmitter.event().name("verdict").data(verdict(view.getId(), view.getStatus(),
+                    view.getPassedTestCases(), view.getTotalTestCases(), view.getRuntimeMs())), true);
+        } else {
+            stream.push(SseEmitter.event().name("status").data(status(submissionId, view.getStatus())), false);
+        }
+        return emitter;
+    }
+
+    public void publishStatus(Long submissionId, String status) {
+        broadcast(submissionId, SseEmitter.event().name("status").data(status(submissionId, status)), false);
+    }
+
+    public void publishTestCase(Long submissionId, int index, TestCaseResultDTO result) {
+        broadcast(submissionId, SseEmitter.event().name("testcase").id(String.valueOf(index)).data(result), false);
+    }
+
+    public void publishVerdict(Submission submission) {
+        broadcast(submission.getId(), SseEmitter.event().name("verdict").data(verdict(submission.getId(),
+                submission.getStatus(), submission.getPassedTestCases(), submission.getTotalTestCases(),
+                submission.getRuntimeMs())), true);
+    }
+
+    // Complete streams whose submission finished on another node
+    @Scheduled(fixedDelayString = "${submission.events.sweep-interval-ms:5000}")
+    public void completeFinishedStreams() {
+        if (streamsBySubmission.isEmpty()) {
+            return;
+        }
+        for (SubmissionRepository.StatusView view : submissionRepository.findFinishedStatusByIdIn(streamsBySubmission.keySet())) {
+            broadcast(view.getId(), SseEmitter.event().name("verdict").data(verdict(view.getId(), view.getStatus(),
+                    view.getPassedTestCases(), view.getTotalTestCases(), view.getRuntimeMs())), true);
+        }
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void broadcast(Long submissionId, SseEmitter.SseEventBuilder event, boolean last) {
+        List<ClientStream> streams = last
+                ? streamsBySubmission.remove(submissionId)
+                : streamsBySubmission.get(submissionId);
+        if (streams == null) {
+            return;
+        }
+        for (ClientStream stream : streams) {
+            stream.push(event, last);
+        }
+    }
+
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks remove it
+            logger.debug("Dropping SSE client: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void remove(Long submissionId, ClientStream stream) {
+        streamsBySubmission.computeIfPresent(submissionId, (id, streams) -> {
+            streams.remove(stream);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private boolean isFinished(String status) {
+        return status != null && !"PENDING".equals(status) && !"RUNNING".equals(status);
+    }
+
+    private Map<String, Object> status(Long submissionId, String status) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("submissionId", submissionId);
+        data.put("status", status);
+        return data;
+    }
+
+    private Map<String, Object> verdict(Long submissionId, String status, Integer passed, Integer total, Long runtimeMs) {
+        Map<String, Object> data = status(submissionId, status);
+        data.put("passedTestCases", passed);
+        data.put("totalTestCases", total);
+        data.put("runtimeMs", runtimeMs);
+        return data;
+    }
+
+    private record Outgoing(SseEmitter.SseEventBuilder event, boolean last) {
+    }
+
+    // One client's stream. The push that takes the pending count off zero starts the drain
+    // task; it sends until every counted event is out, so only one task sends at a time.
+    private final class ClientStream {
+
+        final SseEmitter emitter;
+        private final Queue<Outgoing> outgoing = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        // Only read and written by the drain task
+        private boolean closed;
+
+        ClientStream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void push(SseEmitter.SseEventBuilder event, boolean last) {
+            outgoing.add(new Outgoing(event, last));
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    logger.debug("SSE sender stopped, dropping events");
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                for (Outgoing next = outgoing.poll(); next != null; next = outgoing.poll()) {
+                    if (closed) {
+                        continue;
+                    }
+                    if (!send(emitter, next.event())) {
+                        closed = true;
+                    } else if (next.last()) {
+                        closed = true;
+                        emitter.complete();
+                    }
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package SD_Tech.LeetAI.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import SD_Tech.LeetAI.DTO.TestCaseResultDTO;
+import SD_Tech.LeetAI.Entity.SubmissionTestCaseResult;
+
+/**
+ * Compact binary form of a submission's test case results (Submission.testCaseResultsBlob).
+ *
+ * Only what is specific to the submission is stored: test case id, verdict, runtime, memory and
+ * the (truncated) output and error. Inputs and expected outputs stay on the TestCase rows.
+ *
+ * Version 1 layout, all integers unsigned LEB128 varints:
+ * <pre>
+ *   version (1 byte) | count | count x entry
+ *   entry = testCaseId+1 | flags | runtimeMs+1 | memoryKb+1 | output | error
+ *   flags = bit 0 passed, bit 1 skipped
+ *   string = 0 for null, else (UTF-8 length + 1) followed by the bytes
+ * </pre>
+ * Nullable numbers are stored plus one so that 0 means null.
+ *
+ * Decoding rejects truncated or corrupted input with an IllegalArgumentException.
+ */
+public final class TestCaseResultCodec {
+
+    public static final byte VERSION_1 = 1;
+
+    private static final int FLAG_PASSED = 1;
+    private static final int FLAG_SKIPPED = 2;
+
+    private TestCaseResultCodec() {
+    }
+
+    /**
+     * Encode results, truncating output and error to {@code maxTextChars} characters each
+     * (to empty strings when it is zero or negative).
+     */
+    public static byte[] encode(List<SubmissionTestCaseResult> results, int maxTextChars) {
+        List<TestCaseResultDTO> dtos = new ArrayList<>(results.size());
+        for (SubmissionTestCaseResult r : results) {
+            TestCaseResultDTO dto = new TestCaseResultDTO();
+            dto.setTestCaseId(r.getTestCase() != null ? r.getTestCase().getId() : null);
+            dto.setPassed(r.isPassed());
+            dto.setSkipped(r.isSkipped());
+            dto.setRuntimeMs(r.getRuntimeMs());
+            dto.setMemoryKb(r.getMemoryKb());
+            dto.setActualOutput(r.getActualOutput());
+            dto.setError(r.getError());
+            dtos.add(dto);
+        }
+        return encodeDtos(dtos, maxTextChars);
+    }
+
+    /**
+     * Encode result DTOs (e.g. read from the legacy JSON column). Input and expected output are dropped.
+     */
+    public static byte[] encodeDtos(List<TestCaseResultDTO> results, int maxTextChars) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + results.size() * 16);
+        out.write(VERSION_1);
+        writeVarint(out, results.size());
+        for (TestCaseResultDTO r : results) {
+            writeNullable(out, r.getTestCaseId());
+            writeVarint(out, (r.isPassed() ? FLAG_PASSED : 0) | (r.isSkipped() ? FLAG_SKIPPED : 0));
+            writeNullable(out, r.getRuntimeMs());
+            writeNullable(out, r.getMemoryKb());
+            writeString(out, truncate(r.getActualOutput(), maxTextChars));
+            writeString(out, truncate(r.getError(), maxTextChars));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode into DTOs. Input and expected output are left for the caller to fill in.
+     *
+     * @throws IllegalArgumentException when the data is truncated, corrupted or of an unknown version
+     */
+    public static List<TestCaseResultDTO> decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("Empty test case result data");
+        }
+        try {
+            return decode(ByteBuffer.wrap(data));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated test case result data", e);
+        }
+    }
+
+    private static List<TestCaseResultDTO> decode(ByteBuffer in) {
+        byte version = in.get();
+        if (version != VERSION_1) {
+            throw new IllegalArgumentException("Unsupported test case result format version: " + version);
+        }
+        // Every entry takes at least six bytes, so a larger count is corrupt (and not allocated)
+        long count = readVarint(in);
+        if (count < 0 || count > in.remaining() / 6) {
+            throw new IllegalArgumentException("Corrupted test case result count: " + count);
+        }
+        List<TestCaseResultDTO> results = new ArrayList<>((int) count);
+        for (int i = 0; i < count; i++) {
+            TestCaseResultDTO dto = new TestCaseResultDTO();
+            dto.setTestCaseId(readNullable(in));
+            long flags = readVarint(in);
+            dto.setPassed((flags & FLAG_PASSED) != 0);
+            dto.setSkipped((flags & FLAG_SKIPPED) != 0);
+            dto.setRuntimeMs(readNullable(in));
+            dto.setMemoryKb(readNullable(in));
+            dto.setActualOutput(readString(in));
+            dto.setError(readString(in));
+            results.add(dto);
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("Trailing bytes after test case results: " + in.remaining());
+        }
+        return results;
+    }
+
+    static String truncate(String value, int maxChars) {
+        if (value == null || value.length() <= maxChars) {
+            return value;
+        }
+        if (maxChars <= 0) {
+            return "";
+        }
+        // Do not split a surrogate pair
+        int end = Character.isHighSurrogate(value.charAt(maxChars - 1)) ? maxChars - 1 : maxChars;
+        return value.substring(0, end);
+    }
+
+    private static void writeNullable(ByteArrayOutputStream out, Long value) {
+        writeVarint(out, value == null ? 0 : value + 1);
+    }
+
+    private static Long readNullable(ByteBuffer in) {
+        long value = readVarint(in);
+        return value == 0 ? null : value - 1;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        long length = readVarint(in);
+        if (length == 0) {
+            return null;
+        }
+        if (length < 0 || length - 1 > in.remaining()) {
+            throw new IllegalArgumentException("Corrupted test case result string length: " + (length - 1));
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -0,0 +1,95 @@
+package SD_Tech.LeetAI.Service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import SD_Tech.LeetAI.DTO.TestCaseResultDTO;
+import SD_Tech.LeetAI.Entity.Submission;
+import SD_Tech.LeetAI.Repository.SubmissionRepository;
+
+/**
+ * Moves test case results from the legacy testCaseResultsJson column into
+ * testCaseResultsBlob, one page of submissions per transaction, on a background thread
+ * after startup. Rows whose JSON cannot be read are left untouched and logged.
+ */
+@Component
+public class TestCaseResultsMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestCaseResultsMigration.class);
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${evaluation.results.migrate-legacy-json:true}")
+    private boolean enabled = true;
+
+    @Value("${evaluation.results.max-stored-output-chars:2000}")
+    private int maxStoredTextChars = 2000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            Thread.ofVirtual().name("test-case-results-migration").start(this::migrate);
+        }
+    }
+
+    void migrate() {
+        long lastId = 0;
+        try {
+            while (true) {
+                long after = lastId;
+                Long last = transactionTemplate.execute(status -> migratePage(after));
+                if (last == null) {
+                    break;
+                }
+                lastId = last;
+            }
+            if (lastId > 0) {
+                logger.info("Migrated legacy test case results up to submission {}", lastId);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Migrating legacy test case results stopped after submission {}: {}", lastId, e.getMessage());
+        }
+    }
+
+    // Returns the last id of the page, or null when nothing is left
+    private Long migratePage(long afterId) {
+        List<Submission> page = submissionRepository
+                .findTop100ByIdGreaterThanAndTestCaseResultsBlobIsNullAndTestCaseResultsJsonIsNotNullOrderByIdAsc(afterId);
+        if (page.isEmpty()) {
+            return null;
+        }
+        for (Submission submission : page) {
+            try {
+                List<TestCaseResultDTO> results = objectMapper.readValue(
+                        submission.getTestCaseResultsJson(), new TypeReference<List<TestCaseResultDTO>>() {});
+                submission.setTestCaseResultsBlob(TestCaseResultCodec.encodeDtos(results, maxStoredTextChars));
+                submission.setTestCaseResultsJson(null);
+            } catch (JsonProcessingException e) {
+                logger.warn("Skipping unreadable test case results of submission {}: {}",
+                        submission.getId(), e.getOriginalMessage());
+            }
+        }
+        submissionRepository.saveAll(page);
+        return page.get(page.size() - 1).getId();
+    }
+}
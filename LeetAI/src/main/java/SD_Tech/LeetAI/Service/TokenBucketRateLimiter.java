@@ -0,0 +1,110 @@
+package SD_Tech.LeetAI.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Implemented as a generic cell rate algorithm: the whole bucket state is a single
+ * "theoretical arrival time" updated with CAS, so concurrent callers never block each
+ * other. A caller either takes a permit immediately ({@link #tryAcquire()}), reserves
+ * one and waits for it asynchronously ({@link #acquire()}), or just asks how long it
+ * would have to wait ({@link #estimateWait()}).
+ */
+public class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long maxWaitNanos;
+    private final AtomicLong theoreticalArrivalTime;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param permitsPerMinute sustained rate
+     * @param burst            permits that may be taken back to back from a full bucket
+     * @param maxWait          longest a caller may queue before the reservation is refused
+     */
+    public TokenBucketRateLimiter(int permitsPerMinute, int burst, Duration maxWait) {
+        this(permitsPerMinute, burst, maxWait, System::nanoTime);
+    }
+
+    // Tests pass their own clock
+    TokenBucketRateLimiter(int permitsPerMinute, int burst, Duration maxWait, LongSupplier nanoClock) {
+        if (permitsPerMinute <= 0) {
+            throw new IllegalArgumentException("permitsPerMinute must be positive");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1L);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.nanoClock = nanoClock;
+        this.theoreticalArrivalTime = new AtomicLong(nanoClock.getAsLong() - burstToleranceNanos);
+    }
+
+    /**
+     * Take a permit only if one is available right now.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long tat = theoreticalArrivalTime.get();
+            long base = Math.max(tat, now);
+            if (base - burstToleranceNanos > now) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reserve a permit and complete once it may be used. Errors with
+     * {@link RateLimitExceededException} instead of queuing longer than the configured max wait.
+     */
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            long waitNanos = reserve();
+            if (waitNanos < 0) {
+                return Mono.error(new RateLimitExceededException(estimateWait()));
+            }
+            return waitNanos == 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(waitNanos)).then();
+        });
+    }
+
+    /**
+     * Time until the next permit would become available, without taking it.
+     */
+    public Duration estimateWait() {
+        long now = nanoClock.getAsLong();
+        long wait = Math.max(theoreticalArrivalTime.get(), now) - burstToleranceNanos - now;
+        return Duration.ofNanos(Math.max(0L, wait));
+    }
+
+    public Duration getEmissionInterval() {
+        return Duration.ofNanos(emissionIntervalNanos);
+    }
+
+    // Returns the wait in nanos for the reserved permit, or -1 if it would exceed maxWait
+    private long reserve() {
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long tat = theoreticalArrivalTime.get();
+            long base = Math.max(tat, now);
+            long wait = Math.max(0L, base - burstToleranceNanos - now);
+            if (wait > maxWaitNanos) {
+                return -1L;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return wait;
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package SD_Tech.LeetAI.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps the evaluations a single user has running on this node.
+ *
+ * Each user with work in flight has one counter that is only changed with compare-and-set,
+ * so users never contend with each other and there is no global lock. A counter that drops
+ * to zero is retired (set to -1) before it is removed from the map; a caller that still
+ * holds a retired counter starts over with a fresh one.
+ */
+@Component
+public class UserConcurrencyLimiter {
+
+    private static final int RETIRED = -1;
+
+    private final int maxInFlight;
+    private final ConcurrentHashMap<Long, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public UserConcurrencyLimiter(@Value("${evaluation.per-user.max-in-flight:2}") int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Take one of the user's slots if the user is below the cap. Work without a user is not capped.
+     */
+    public boolean tryAcquire(Long userId) {
+        if (userId == null || maxInFlight <= 0) {
+            return true;
+        }
+        while (true) {
+            AtomicInteger counter = inFlight.computeIfAbsent(userId, id -> new AtomicInteger());
+            int current = counter.get();
+            if (current == RETIRED) {
+                Thread.onSpinWait(); // being removed; computeIfAbsent soon returns a fresh counter
+                continue;
+            }
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a slot taken with {@link #tryAcquire}.
+     */
+    public void release(Long userId) {
+        if (userId == null || maxInFlight <= 0) {
+            return;
+        }
+        AtomicInteger counter = inFlight.get(userId);
+        if (counter == null) {
+            throw new IllegalStateException("No evaluation in flight for user " + userId);
+        }
+        if (counter.decrementAndGet() == 0 && counter.compareAndSet(0, RETIRED)) {
+            inFlight.remove(userId, counter);
+        }
+    }
+
+    public int inFlight(Long userId) {
+        AtomicInteger counter = inFlight.get(userId);
+        return counter != null ? Math.max(0, counter.get()) : 0;
+    }
+
+    /**
+     * Users currently at the cap.
+     */
+    public Set<Long> saturatedUsers() {
+        return inFlight.entrySet().stream()
+                .filter(entry -> entry.getValue().get() >= maxInFlight)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+}
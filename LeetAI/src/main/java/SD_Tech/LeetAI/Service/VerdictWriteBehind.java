@@ -0,0 +1,220 @@
+package SD_Tech.LeetAI.Service;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import SD_Tech.LeetAI.Entity.Submission;
+import SD_Tech.LeetAI.Repository.SubmissionRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind persistence of evaluation verdicts.
+ *
+ * Finished evaluations hand their verdict (status, feedback, counters and the encoded test
+ * case results) over instead of each opening its own transaction. Verdicts of many
+ * submissions are stored together: one transaction per flush, the submission rows loaded
+ * with one query and updated in one JDBC batch (hibernate.jdbc.batch_size), plus the stats
+ * upserts. A flush runs when evaluation.verdicts.flush-size verdicts are waiting, or every
+ * evaluation.verdicts.flush-interval-ms.
+ *
+ * The caller blocks until the flush that carries its verdict has committed, so the evaluation
+ * job is only marked done once its verdict is stored: a node that dies with verdicts in the
+ * buffer loses nothing, their leases expire and the jobs run again. That also bounds the
+ * buffer by the number of evaluation workers. Each verdict's guard (the job's lease check)
+ * runs in the flush transaction, and a verdict whose guard fails is left out. When a flush
+ * fails, its verdicts are stored one transaction each, so one bad row fails only its own
+ * evaluation. The buffer is drained on shutdown.
+ *
+ * Until a verdict is stored, {@link #applyUnwritten} lays it over the row read by the
+ * submission detail endpoint.
+ */
+@Service
+public class VerdictWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerdictWriteBehind.class);
+
+    // A verdict waiting for a flush; done completes once it is stored or refused
+    private record PendingVerdict(Submission verdict, Runnable guard, CompletableFuture<Void> done) {
+    }
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${evaluation.verdicts.flush-size:50}")
+    private int flushSize = 50;
+
+    private final ConcurrentLinkedQueue<PendingVerdict> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<Long, Submission> unwritten = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean shutDown;
+
+    /**
+     * Store the verdict fields of {@code submission} and count it into the stats with the next
+     * flush, and wait for that flush to commit. {@code guard} runs in the flush transaction;
+     * when it throws, the verdict is not stored and the exception is rethrown here.
+     */
+    public void write(Submission submission, Runnable guard) {
+        PendingVerdict pending = new PendingVerdict(submission, guard, new CompletableFuture<>());
+        unwritten.put(submission.getId(), submission);
+        queue.add(pending);
+        int waiting = queued.incrementAndGet();
+        if (shutDown) {
+            flush();
+        } else if (waiting >= flushSize && flushLock.tryLock()) {
+            try {
+                flushLocked();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+        try {
+            pending.done().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Copy a verdict that is waiting for a flush onto {@code submission}, as read from the
+     * table. Only for rows that are not written back, e.g. in a read-only transaction.
+     */
+    public void applyUnwritten(Submission submission) {
+        Submission verdict = unwritten.get(submission.getId());
+        if (verdict != null) {
+            copyVerdict(verdict, submission);
+        }
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    @Scheduled(fixedDelayString = "${evaluation.verdicts.flush-interval-ms:100}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Later writes flush inline, the scheduler may already be gone
+    @PreDestroy
+    public void flushOnShutdown() {
+        shutDown = true;
+        flush();
+    }
+
+    private void flushLocked() {
+        List<PendingVerdict> batch = new ArrayList<>();
+        for (PendingVerdict pending = queue.poll(); pending != null; pending = queue.poll()) {
+            batch.add(pending);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        queued.addAndGet(-batch.size());
+
+        Map<PendingVerdict, RuntimeException> refused = new IdentityHashMap<>();
+        try {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeBatch(batch, refused));
+            } catch (RuntimeException e) {
+                logger.warn("Storing {} verdicts together failed, storing them one by one: {}", batch.size(), e.getMessage());
+                batch.forEach(this::writeAlone);
+                return;
+            }
+            logger.debug("Stored {} verdicts, {} refused", batch.size() - refused.size(), refused.size());
+            for (PendingVerdict pending : batch) {
+                RuntimeException error = refused.get(pending);
+                if (error != null) {
+                    pending.done().completeExceptionally(error);
+                } else {
+                    pending.done().complete(null);
+                }
+            }
+        } finally {
+            batch.forEach(pending -> unwritten.remove(pending.verdict().getId(), pending.verdict()));
+        }
+    }
+
+    // Runs in the flush transaction; refusals are reported once it has committed
+    private void writeBatch(List<PendingVerdict> batch, Map<PendingVerdict, RuntimeException> refused) {
+        refused.clear();
+        List<PendingVerdict> accepted = new ArrayList<>();
+        for (PendingVerdict pending : batch) {
+            try {
+                pending.guard().run();
+                accepted.add(pending);
+            } catch (RuntimeException e) {
+                refused.put(pending, e);
+            }
+        }
+        List<Long> ids = accepted.stream().map(pending -> pending.verdict().getId()).toList();
+        Map<Long, Submission> stored = submissionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Submission::getId, Function.identity()));
+        for (PendingVerdict pending : accepted) {
+            Submission submission = stored.get(pending.verdict().getId());
+            if (submission == null) {
+                refused.put(pending, missing(pending));
+                continue;
+            }
+            copyVerdict(pending.verdict(), submission);
+            statsService.record(submission);
+        }
+    }
+
+    private void writeAlone(PendingVerdict pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                pending.guard().run();
+                Submission submission = submissionRepository.findById(pending.verdict().getId())
+                        .orElseThrow(() -> missing(pending));
+                copyVerdict(pending.verdict(), submission);
+                statsService.record(submission);
+            });
+            pending.done().complete(null);
+        } catch (RuntimeException e) {
+            pending.done().completeExceptionally(e);
+        }
+    }
+
+    private static IllegalStateException missing(PendingVerdict pending) {
+        return new IllegalStateException("Submission " + pending.verdict().getId() + " no longer exists");
+    }
+
+    private static void copyVerdict(Submission from, Submission to) {
+        to.setStatus(from.getStatus());
+        to.setFeedback(from.getFeedback());
+        to.setPassedTestCases(from.getPassedTestCases());
+        to.setTotalTestCases(from.getTotalTestCases());
+        to.setRuntimeMs(from.getRuntimeMs());
+        to.setTestCaseResultsBlob(from.getTestCaseResultsBlob());
+    }
+}
@@ -0,0 +1,124 @@
+package SD_Tech.LeetAI.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import SD_Tech.LeetAI.DTO.ProblemSummaryDTO;
+import SD_Tech.LeetAI.Entity.Problem;
+import SD_Tech.LeetAI.Entity.ProblemStats;
+import SD_Tech.LeetAI.Entity.Tag;
+import SD_Tech.LeetAI.Repository.ProblemRepository;
+import SD_Tech.LeetAI.Repository.ProblemStatsRepository;
+import SD_Tech.LeetAI.Service.ProblemCountCache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Problem list endpoints return summaries with tags and acceptance stats, using a fixed
+ * number of statements per page.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProblemControllerListingTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Autowired
+    private ProblemStatsRepository problemStatsRepository;
+
+    private ProblemController controller;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ProblemController();
+        ReflectionTestUtils.setField(controller, "problemRepository", problemRepository);
+        ReflectionTestUtils.setField(controller, "problemStatsRepository", problemStatsRepository);
+        ReflectionTestUtils.setField(controller, "problemCountCache", new ProblemCountCache());
+
+        Tag arrays = entityManager.persist(Tag.builder().name("Arrays").build());
+        Tag math = entityManager.persist(Tag.builder().name("Math").build());
+
+        for (int i = 0; i < 6; i++) {
+            Set<Tag> tags = new HashSet<>(i % 2 == 0 ? Set.of(arrays, math) : Set.of(arrays));
+            Problem problem = entityManager.persist(Problem.builder().title("Problem " + i).difficulty("EASY")
+                    .description("long statement").referenceSolution("secret").tags(tags).build());
+            if (i == 0) {
+                entityManager.persist(new ProblemStats(problem.getId(), 4, 2, 3, 1));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void tagListingReturnsSummariesInFourStatements() {
+        ResponseEntity<List<ProblemSummaryDTO>> response = controller.getProblemsByTag("Arrays", 0, 20);
+
+        // page, count, tags, acceptance
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals("6", response.getHeaders().getFirst("X-Total-Count"));
+        List<ProblemSummaryDTO> problems = response.getBody();
+        assertEquals(6, problems.size());
+
+        ProblemSummaryDTO first = problems.get(0);
+        assertEquals("Problem 0", first.getTitle());
+        assertEquals(List.of("Arrays", "Math"), first.getTags());
+        assertEquals(4, first.getTotalSubmissions());
+        assertEquals(2, first.getAcceptedSubmissions());
+        assertEquals(0.5, first.getAcceptanceRate());
+
+        assertEquals(List.of("Arrays"), problems.get(1).getTags());
+        assertNull(problems.get(1).getAcceptanceRate());
+    }
+
+    @Test
+    void keysetListingSkipsTheCountUnlessAsked() {
+        ResponseEntity<List<ProblemSummaryDTO>> response =
+                controller.getAllProblems(0, 4, "title", "desc", "", null);
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertNull(response.getHeaders().getFirst("X-Total-Count"));
+        assertEquals("Problem 5", response.getBody().get(0).getTitle());
+
+        String cursor = response.getHeaders().getFirst("X-Next-Cursor");
+        List<ProblemSummaryDTO> next = controller.getAllProblems(0, 4, "title", "desc", cursor, true).getBody();
+        assertEquals(List.of("Problem 1", "Problem 0"), next.stream().map(ProblemSummaryDTO::getTitle).toList());
+
+        assertEquals(400, controller.getAllProblems(0, 4, "description", "asc", null, null).getStatusCode().value());
+        assertEquals(400, controller.getAllProblems(0, 4, "id", "asc", cursor, null).getStatusCode().value());
+    }
+
+    @Test
+    void updateRequiresTheSortedFields() {
+        Long id = problemRepository.findAll().get(0).getId();
+
+        assertEquals(400, controller.updateProblem(id, Problem.builder().difficulty("HARD").build(), null)
+                .getStatusCode().value());
+        assertEquals(400, controller.updateProblem(id, Problem.builder().title("Renamed").difficulty(" ").build(), null)
+                .getStatusCode().value());
+        assertEquals("EASY", problemRepository.findById(id).orElseThrow().getDifficulty());
+    }
+}
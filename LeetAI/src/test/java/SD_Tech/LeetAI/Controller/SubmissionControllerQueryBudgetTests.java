@@ -0,0 +1,185 @@
+package SD_Tech.LeetAI.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import SD_Tech.LeetAI.DTO.SubmissionDetailsDTO;
+import SD_Tech.LeetAI.DTO.SubmissionSummaryDTO;
+import SD_Tech.LeetAI.Entity.Problem;
+import SD_Tech.LeetAI.Entity.Submission;
+import SD_Tech.LeetAI.Entity.SubmissionTestCaseResult;
+import SD_Tech.LeetAI.Entity.Tag;
+import SD_Tech.LeetAI.Entity.TestCase;
+import SD_Tech.LeetAI.Entity.User;
+import SD_Tech.LeetAI.Repository.SubmissionRepository;
+import SD_Tech.LeetAI.Repository.SubmissionTestCaseResultRepository;
+import SD_Tech.LeetAI.Repository.TestCaseRepository;
+import SD_Tech.LeetAI.Service.TestCaseResultCodec;
+import SD_Tech.LeetAI.Service.VerdictWriteBehind;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * SQL statement budgets of the submission read endpoints, counted with Hibernate statistics
+ * on an in-memory database. The budgets must not grow with the number of submissions or results.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SubmissionControllerQueryBudgetTests {
+
+    private static final int SUBMISSIONS = 5;
+    private static final int TEST_CASES = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private SubmissionTestCaseResultRepository submissionTestCaseResultRepository;
+
+    @Autowired
+    private TestCaseRepository testCaseRepository;
+
+    private SubmissionController controller;
+    private Statistics statistics;
+    private User user;
+    private Problem problem;
+    private Long rowResultsSubmissionId;
+    private Long blobResultsSubmissionId;
+
+    @BeforeEach
+    void setUp() {
+        controller = new SubmissionController();
+        ReflectionTestUtils.setField(controller, "submissionRepository", submissionRepository);
+        ReflectionTestUtils.setField(controller, "submissionTestCaseResultRepository", submissionTestCaseResultRepository);
+        ReflectionTestUtils.setField(controller, "testCaseRepository", testCaseRepository);
+        ReflectionTestUtils.setField(controller, "verdictWriteBehind", new VerdictWriteBehind());
+
+        Tag arrays = new Tag();
+        arrays.setName("Arrays");
+        Tag math = new Tag();
+        math.setName("Math");
+        entityManager.persist(arrays);
+        entityManager.persist(math);
+
+        user = entityManager.persist(User.builder().name("Ada").email("ada@example.com").password("x").build());
+        problem = entityManager.persist(Problem.builder().title("Two Sum").difficulty("EASY")
+                .tags(new HashSet<>(Set.of(arrays, math))).build());
+
+        List<TestCase> testCases = new ArrayList<>();
+        for (int i = 0; i < TEST_CASES; i++) {
+            TestCase testCase = new TestCase();
+            testCase.setProblem(problem);
+            testCase.setInput("in-" + i);
+            testCase.setExpectedOutput("out-" + i);
+            testCases.add(entityManager.persist(testCase));
+        }
+
+        LocalDateTime time = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int s = 0; s < SUBMISSIONS; s++) {
+            Submission submission = submission(time.plusMinutes(s));
+            entityManager.persist(submission);
+            List<SubmissionTestCaseResult> results = new ArrayList<>();
+            for (TestCase testCase : testCases) {
+                SubmissionTestCaseResult result = new SubmissionTestCaseResult();
+                result.setSubmission(submission);
+                result.setTestCase(testCase);
+                result.setActualOutput(testCase.getExpectedOutput());
+                result.setPassed(true);
+                results.add(entityManager.persist(result));
+            }
+            if (s == 0) {
+                rowResultsSubmissionId = submission.getId();
+            } else if (s == 1) {
+                submission.setTestCaseResultsBlob(TestCaseResultCodec.encode(results, 2000));
+                blobResultsSubmissionId = submission.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listingsRunOneStatement() {
+        assertStatements(1, () -> controller.getAllSubmissions(null, 20), SUBMISSIONS);
+        assertStatements(1, () -> controller.getSubmissionsByUser(user.getId(), null, 20), SUBMISSIONS);
+        assertStatements(1, () -> controller.getSubmissionsByProblem(problem.getId(), null, 20), SUBMISSIONS);
+    }
+
+    @Test
+    void listingPagesFollowTheCursor() {
+        ResponseEntity<List<SubmissionSummaryDTO>> first = controller.getSubmissionsByUser(user.getId(), null, 3);
+        String cursor = first.getHeaders().getFirst("X-Next-Cursor");
+        assertNotNull(cursor);
+        ResponseEntity<List<SubmissionSummaryDTO>> second = controller.getSubmissionsByUser(user.getId(), cursor, 3);
+
+        assertEquals(3, first.getBody().size());
+        assertEquals(SUBMISSIONS - 3, second.getBody().size());
+        assertEquals(null, second.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(first.getBody().get(2).getSubmissionTime().minusMinutes(1),
+                second.getBody().get(0).getSubmissionTime());
+    }
+
+    @Test
+    void detailsFromResultRowsRunTwoStatements() {
+        ResponseEntity<SubmissionDetailsDTO> response =
+                assertStatements(2, () -> controller.getSubmissionById(rowResultsSubmissionId), -1);
+        assertEquals(TEST_CASES, response.getBody().getTestCaseResults().size());
+        assertEquals("in-0", response.getBody().getTestCaseResults().get(0).getInput());
+    }
+
+    @Test
+    void detailsFromEncodedResultsRunTwoStatements() {
+        ResponseEntity<SubmissionDetailsDTO> response =
+                assertStatements(2, () -> controller.getSubmissionById(blobResultsSubmissionId), -1);
+        assertEquals(TEST_CASES, response.getBody().getTestCaseResults().size());
+        assertEquals("out-3", response.getBody().getTestCaseResults().get(3).getExpectedOutput());
+    }
+
+    private <T> ResponseEntity<T> assertStatements(long budget, Supplier<ResponseEntity<T>> call, int expectedRows) {
+        entityManager.clear();
+        statistics.clear();
+        ResponseEntity<T> response = call.get();
+        assertEquals(200, response.getStatusCode().value());
+        if (expectedRows >= 0) {
+            assertEquals(expectedRows, ((List<?>) response.getBody()).size());
+        }
+        assertEquals(budget, statistics.getPrepareStatementCount());
+        return response;
+    }
+
+    private Submission submission(LocalDateTime time) {
+        Submission submission = new Submission();
+        submission.setUser(user);
+        submission.setProblem(problem);
+        submission.setCode("print(input())");
+        submission.setLanguage("python");
+        submission.setStatus("ACCEPTED");
+        submission.setSubmissionTime(time);
+        submission.setTotalTestCases(TEST_CASES);
+        submission.setPassedTestCases(TEST_CASES);
+        return submission;
+    }
+}
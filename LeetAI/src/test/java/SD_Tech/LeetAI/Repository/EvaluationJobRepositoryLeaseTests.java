@@ -0,0 +1,79 @@
+package SD_Tech.LeetAI.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import SD_Tech.LeetAI.Entity.EvaluationJob;
+import SD_Tech.LeetAI.Entity.EvaluationJobStatus;
+
+/**
+ * Expired leases are requeued until the job has used its attempts, then failed; only the
+ * current lease token finds a running job.
+ */
+@DataJpaTest
+class EvaluationJobRepositoryLeaseTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EvaluationJobRepository evaluationJobRepository;
+
+    @Test
+    void expiredLeasesAreRequeuedUntilAttemptsRunOut() {
+        LocalDateTime now = LocalDateTime.now();
+        Long retried = running(1L, 1, "node/a", now.minusSeconds(1)).getId();
+        Long exhausted = running(2L, 3, "node/b", now.minusSeconds(1)).getId();
+        Long live = running(3L, 3, "node/c", now.plusMinutes(5)).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(2L), evaluationJobRepository.findExhaustedExpiredLeases(now, 3));
+        assertEquals(2, evaluationJobRepository.requeueExpiredLeases(now, 3, "Lease expired"));
+        entityManager.clear();
+
+        EvaluationJob requeued = evaluationJobRepository.findById(retried).orElseThrow();
+        assertEquals(EvaluationJobStatus.QUEUED, requeued.getStatus());
+        assertNull(requeued.getLeaseOwner());
+        assertNull(requeued.getLastError());
+
+        EvaluationJob failed = evaluationJobRepository.findById(exhausted).orElseThrow();
+        assertEquals(EvaluationJobStatus.FAILED, failed.getStatus());
+        assertEquals("Lease expired", failed.getLastError());
+
+        assertEquals(EvaluationJobStatus.RUNNING, evaluationJobRepository.findById(live).orElseThrow().getStatus());
+    }
+
+    @Test
+    void onlyTheCurrentLeaseTokenFindsTheJob() {
+        Long id = running(1L, 1, "node/current", LocalDateTime.now().plusMinutes(5)).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(evaluationJobRepository.findByIdAndLeaseOwnerAndStatus(id, "node/current", EvaluationJobStatus.RUNNING).isPresent());
+        assertTrue(evaluationJobRepository.findByIdAndLeaseOwnerAndStatus(id, "node/previous", EvaluationJobStatus.RUNNING).isEmpty());
+    }
+
+    private EvaluationJob running(Long submissionId, int attempts, String leaseOwner, LocalDateTime leaseExpiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        return entityManager.persist(EvaluationJob.builder()
+                .submissionId(submissionId)
+                .status(EvaluationJobStatus.RUNNING)
+                .attempts(attempts)
+                .leaseOwner(leaseOwner)
+                .leaseExpiresAt(leaseExpiresAt)
+                .availableAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+}
@@ -0,0 +1,91 @@
+package SD_Tech.LeetAI.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
+
+import SD_Tech.LeetAI.DTO.ProblemCursor;
+import SD_Tech.LeetAI.DTO.ProblemSummaryDTO;
+import SD_Tech.LeetAI.Entity.Problem;
+import jakarta.persistence.PersistenceException;
+
+/**
+ * Walking every keyset page must visit each problem exactly once, in (key, id) order,
+ * including across runs of equal sort values. Sort values are never null, so the seek does
+ * not need to handle NULLs.
+ */
+@DataJpaTest
+class ProblemRepositoryKeysetTests {
+
+    private static final String[] DIFFICULTIES = { "EASY", "MEDIUM", "HARD" };
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 11; i++) {
+            entityManager.persist(Problem.builder()
+                    .title("Problem " + (char) ('a' + i % 4))
+                    .difficulty(DIFFICULTIES[i % 3])
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesCoverEveryProblemInOrder() {
+        for (ProblemSort sort : ProblemSort.values()) {
+            for (boolean descending : new boolean[] { false, true }) {
+                assertEquals(expected(sort, descending), walk(sort, descending, 3), sort + (descending ? " desc" : " asc"));
+            }
+        }
+    }
+
+    @Test
+    void sortColumnsRejectNulls() {
+        assertThrows(PersistenceException.class,
+                () -> entityManager.persistAndFlush(Problem.builder().difficulty("EASY").build()));
+        entityManager.clear();
+        assertThrows(PersistenceException.class,
+                () -> entityManager.persistAndFlush(Problem.builder().title("No difficulty").build()));
+    }
+
+    private List<Long> walk(ProblemSort sort, boolean descending, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        ProblemCursor after = null;
+        while (true) {
+            List<ProblemSummaryDTO> page = problemRepository.findPageAfter(sort, descending, after, pageSize);
+            page.forEach(problem -> ids.add(problem.getId()));
+            if (page.size() < pageSize) {
+                return ids;
+            }
+            ProblemSummaryDTO last = page.get(page.size() - 1);
+            after = ProblemCursor.decode(
+                    new ProblemCursor(sort.toString(), descending, sort.valueOf(last), last.getId()).encode());
+        }
+    }
+
+    private List<Long> expected(ProblemSort sort, boolean descending) {
+        List<ProblemSummaryDTO> all = new ArrayList<>(problemRepository.findSummaries(Pageable.unpaged()));
+        all.sort((a, b) -> {
+            int order = sort == ProblemSort.ID ? 0 : sort.valueOf(a).compareTo(sort.valueOf(b));
+            order = order != 0 ? order : a.getId().compareTo(b.getId());
+            return descending ? -order : order;
+        });
+        return all.stream().map(ProblemSummaryDTO::getId).toList();
+    }
+}
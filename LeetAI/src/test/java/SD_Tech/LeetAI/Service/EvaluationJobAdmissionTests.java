@@ -0,0 +1,78 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import SD_Tech.LeetAI.Entity.EvaluationJob;
+import SD_Tech.LeetAI.Entity.EvaluationLane;
+import SD_Tech.LeetAI.Repository.EvaluationJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Many concurrent submissions against a nearly full queue: exactly the remaining capacity is
+ * admitted, the rest are refused, and the depth never exceeds the capacity.
+ */
+class EvaluationJobAdmissionTests {
+
+    private static final int CAPACITY = 5;
+    private static final int SUBMITTERS = 40;
+
+    @Test
+    void concurrentEnqueuesNeverOvershootCapacity() throws Exception {
+        EvaluationJobRepository repository = mock(EvaluationJobRepository.class);
+        when(repository.save(any(EvaluationJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        EvaluationJobService service = new EvaluationJobService();
+        ReflectionTestUtils.setField(service, "evaluationJobRepository", repository);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "capacity", (long) CAPACITY);
+        ReflectionTestUtils.setField(service, "workers", 4);
+        ReflectionTestUtils.setField(service, "initialJobEstimateMs", 1000L);
+        service.registerMetrics();
+
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(SUBMITTERS);
+        try {
+            List<Future<?>> submitters = new ArrayList<>();
+            for (int i = 0; i < SUBMITTERS; i++) {
+                long submissionId = i;
+                submitters.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        service.admit();
+                        service.enqueue(submissionId, submissionId, EvaluationLane.PRACTICE);
+                        admitted.incrementAndGet();
+                    } catch (EvaluationQueueFullException e) {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> submitter : submitters) {
+                submitter.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(CAPACITY, admitted.get());
+        assertEquals(SUBMITTERS - CAPACITY, refused.get());
+        assertEquals(CAPACITY, service.getQueueDepth());
+    }
+}
@@ -0,0 +1,203 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import SD_Tech.LeetAI.Entity.EvaluationLane;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+
+/**
+ * Grant order of the scheduler with a single slot: lanes share it by weight, users inside a
+ * lane take turns, and cancelled work gives its slot or its place in the queue back.
+ */
+class FairEvaluationSchedulerTests {
+
+    private final List<Job> started = new ArrayList<>();
+
+    @Test
+    void lanesShareSlotsByWeight() {
+        FairEvaluationScheduler scheduler = new FairEvaluationScheduler(1, 1, 8, 3, 1);
+        Job blocker = schedule(scheduler, EvaluationLane.BACKGROUND, 0L, 1);
+        for (int i = 0; i < 120; i++) {
+            schedule(scheduler, EvaluationLane.CONTEST, 1L, 1);
+            schedule(scheduler, EvaluationLane.PRACTICE, 2L, 1);
+            schedule(scheduler, EvaluationLane.BACKGROUND, 3L, 1);
+        }
+
+        blocker.finish();
+        Map<EvaluationLane, Integer> grants = new EnumMap<>(EvaluationLane.class);
+        for (int i = 0; i < 120; i++) {
+            Job running = running();
+            grants.merge(running.lane, 1, Integer::sum);
+            running.finish();
+        }
+
+        // 8 : 3 : 1 of 120 grants
+        assertAround(80, grants.get(EvaluationLane.CONTEST));
+        assertAround(30, grants.get(EvaluationLane.PRACTICE));
+        assertAround(10, grants.get(EvaluationLane.BACKGROUND));
+    }
+
+    @Test
+    void idleLaneDoesNotSaveUpCredit() {
+        FairEvaluationScheduler scheduler = new FairEvaluationScheduler(1, 1, 1, 1, 1);
+        Job blocker = schedule(scheduler, EvaluationLane.PRACTICE, 1L, 1);
+        for (int i = 0; i < 50; i++) {
+            schedule(scheduler, EvaluationLane.PRACTICE, 1L, 1);
+        }
+        blocker.finish();
+        for (int i = 0; i < 40; i++) {
+            running().finish();
+        }
+
+        // Background was idle while practice ran 40 times; it now alternates instead of taking 40 in a row
+        for (int i = 0; i < 10; i++) {
+            schedule(scheduler, EvaluationLane.BACKGROUND, 2L, 1);
+        }
+        List<EvaluationLane> next = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Job running = running();
+            next.add(running.lane);
+            running.finish();
+        }
+        assertEquals(3, next.stream().filter(lane -> lane == EvaluationLane.BACKGROUND).count(), next.toString());
+    }
+
+    @Test
+    void lightUserIsNotStuckBehindHeavyUser() {
+        int quantum = 2;
+        FairEvaluationScheduler scheduler = new FairEvaluationScheduler(1, quantum, 8, 3, 1);
+        Job blocker = schedule(scheduler, EvaluationLane.PRACTICE, 1L, 1);
+        for (int i = 0; i < 50; i++) {
+            schedule(scheduler, EvaluationLane.PRACTICE, 1L, 1);
+        }
+        for (int i = 0; i < 5; i++) {
+            schedule(scheduler, EvaluationLane.PRACTICE, 2L, 1);
+        }
+
+        blocker.finish();
+        List<Long> order = new ArrayList<>();
+        int heavyInARow = 0;
+        while (order.stream().filter(user -> user == 2L).count() < 5) {
+            Job running = running();
+            order.add(running.user);
+            heavyInARow = running.user == 1L ? heavyInARow + 1 : 0;
+            assertTrue(heavyInARow <= quantum, "heavy user ran more than a quantum in a row: " + order);
+            running.finish();
+        }
+
+        // Turns of two: H H L L H H L L H H L
+        assertEquals(11, order.size(), order.toString());
+        // 50 heavy jobs, 6 done and one granted the freed slot
+        assertEquals(43, scheduler.waiting(EvaluationLane.PRACTICE));
+    }
+
+    @Test
+    void largeWorkWaitsUntilItsUserHasEnoughCredit() {
+        FairEvaluationScheduler scheduler = new FairEvaluationScheduler(1, 4, 8, 3, 1);
+        Job blocker = schedule(scheduler, EvaluationLane.PRACTICE, 0L, 1);
+        schedule(scheduler, EvaluationLane.PRACTICE, 1L, 10);
+        for (int i = 0; i < 10; i++) {
+            schedule(scheduler, EvaluationLane.PRACTICE, 2L, 1);
+        }
+
+        blocker.finish();
+        List<Long> order = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            Job running = running();
+            order.add(running.user);
+            running.finish();
+        }
+
+        // Credit 4, 8, 12 over three turns: the batch of 10 goes after two turns of the small user
+        assertEquals(List.of(2L, 2L, 2L, 2L, 2L, 2L, 2L, 2L, 1L, 2L, 2L), order);
+    }
+
+    @Test
+    void cancellingRunningWorkReturnsTheSlot() {
+        FairEvaluationScheduler scheduler = new FairEvaluationScheduler(1, 1, 8, 3, 1);
+        Job running = schedule(scheduler, EvaluationLane.PRACTICE, 1L, 1);
+        Job waiting = schedule(scheduler, EvaluationLane.PRACTICE, 2L, 1);
+        assertEquals(1, scheduler.busySlots());
+        assertEquals(1, scheduler.waiting(EvaluationLane.PRACTICE));
+        assertEquals(List.of(running), started);
+
+        running.subscription.dispose();
+
+        assertEquals(List.of(running, waiting), started);
+        assertEquals(1, scheduler.busySlots());
+        assertEquals(0, scheduler.waiting(EvaluationLane.PRACTICE));
+
+        waiting.finish();
+        assertEquals(0, scheduler.busySlots());
+    }
+
+    @Test
+    void cancellingWaitingWorkGivesUpItsPlace() {
+        FairEvaluationScheduler scheduler = new FairEvaluationScheduler(1, 1, 8, 3, 1);
+        Job running = schedule(scheduler, EvaluationLane.PRACTICE, 1L, 1);
+        Job cancelled = schedule(scheduler, EvaluationLane.PRACTICE, 2L, 1);
+        Job next = schedule(scheduler, EvaluationLane.PRACTICE, 3L, 1);
+        assertEquals(2, scheduler.waiting(EvaluationLane.PRACTICE));
+
+        cancelled.subscription.dispose();
+        assertEquals(1, scheduler.waiting(EvaluationLane.PRACTICE));
+        assertEquals(1, scheduler.busySlots());
+
+        running.finish();
+        assertEquals(List.of(running, next), started);
+        next.finish();
+        assertEquals(0, scheduler.busySlots());
+        assertEquals(0, scheduler.waiting(EvaluationLane.PRACTICE));
+    }
+
+    private Job schedule(FairEvaluationScheduler scheduler, EvaluationLane lane, Long user, int cost) {
+        Job job = new Job(lane, user);
+        job.subscription = scheduler.schedule(cost, Mono.defer(() -> {
+                    started.add(job);
+                    return job.done.asMono();
+                }))
+                .contextWrite(Context.of(EvaluationContext.class, new EvaluationContext(lane, user)))
+                .subscribe();
+        return job;
+    }
+
+    // The one job holding the slot
+    private Job running() {
+        Job last = started.get(started.size() - 1);
+        assertTrue(!last.finished, "no job is running");
+        return last;
+    }
+
+    private static void assertAround(int expected, Integer actual) {
+        assertTrue(actual != null && Math.abs(expected - actual) <= 2, "expected about " + expected + " but was " + actual);
+    }
+
+    private static final class Job {
+        final EvaluationLane lane;
+        final Long user;
+        final Sinks.Empty<Void> done = Sinks.empty();
+        Disposable subscription;
+        boolean finished;
+
+        Job(EvaluationLane lane, Long user) {
+            this.lane = lane;
+            this.user = user;
+        }
+
+        void finish() {
+            finished = true;
+            done.tryEmitEmpty();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import SD_Tech.LeetAI.Controller.Judge0CallbackController;
+import SD_Tech.LeetAI.DTO.Judge0BatchSubmissionRequest;
+import SD_Tech.LeetAI.DTO.Judge0Response;
+
+/**
+ * Runs Judge0Service against a local Judge0 stand-in that reports results through
+ * the callback endpoint instead of answering polls.
+ */
+class Judge0CallbackTests {
+
+    private HttpServer judge0StandIn;
+    private ScheduledExecutorService callbackSender;
+    private final AtomicInteger pollRequests = new AtomicInteger();
+
+    private Judge0CallbackRegistry registry;
+    private Judge0Service judge0Service;
+    private Judge0CallbackController callbackController;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        registry = new Judge0CallbackRegistry();
+        callbackController = new Judge0CallbackController();
+        ReflectionTestUtils.setField(callbackController, "judge0CallbackRegistry", registry);
+        ReflectionTestUtils.setField(callbackController, "callbackSecret", "s3cret");
+
+        callbackSender = Executors.newSingleThreadScheduledExecutor();
+        judge0StandIn = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        judge0StandIn.createContext("/api/submissions/batch", this::handleBatch);
+        judge0StandIn.start();
+
+        String baseUrl = "http://127.0.0.1:" + judge0StandIn.getAddress().getPort();
+        Judge0Client client = new Judge0Client(baseUrl, "", 4, 1000, 1000, 1000, 2000, 2000);
+
+        judge0Service = new Judge0Service();
+        ReflectionTestUtils.setField(judge0Service, "judge0Client", client);
+        ReflectionTestUtils.setField(judge0Service, "judge0RateLimiter",
+                new TokenBucketRateLimiter(6000, 100, Duration.ofSeconds(5)));
+        ReflectionTestUtils.setField(judge0Service, "judge0CallbackRegistry", registry);
+        ReflectionTestUtils.setField(judge0Service, "executionResultCache", new ExecutionResultCache(100));
+        ReflectionTestUtils.setField(judge0Service, "fairEvaluationScheduler", new FairEvaluationScheduler(4, 20, 8, 3, 1));
+        ReflectionTestUtils.setField(judge0Service, "callbackUrl", "http://localhost/api/internal/judge0/callback");
+        ReflectionTestUtils.setField(judge0Service, "callbackSecret", "s3cret");
+        ReflectionTestUtils.setField(judge0Service, "callbackWaitMs", 5000L);
+        ReflectionTestUtils.setField(judge0Service, "pollInitialDelayMs", 10L);
+        ReflectionTestUtils.setField(judge0Service, "pollMaxDelayMs", 50L);
+        ReflectionTestUtils.setField(judge0Service, "pollBackoffMultiplier", 2.0);
+        ReflectionTestUtils.setField(judge0Service, "pollDeadlineMs", 2000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        judge0StandIn.stop(0);
+        callbackSender.shutdownNow();
+    }
+
+    @Test
+    void batchCompletesFromCallbacksInRequestOrder() throws Exception {
+        List<Judge0BatchSubmissionRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(new Judge0BatchSubmissionRequest("71", "print(input())", "in-" + i));
+        }
+
+        Map<Integer, String> reported = new ConcurrentHashMap<>();
+        List<Judge0Response> results = judge0Service.runBatch(requests,
+                (index, result) -> reported.put(index, result.getStdout()));
+
+        assertEquals(3, results.size());
+        assertEquals(Map.of(0, "out-0", 1, "out-1", 2, "out-2"), reported);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("token-" + i, results.get(i).getToken());
+            assertEquals(3, results.get(i).getStatus().getId());
+            assertEquals("out-" + i, results.get(i).getStdout());
+        }
+        assertEquals(0, pollRequests.get());
+        assertEquals("http://localhost/api/internal/judge0/callback?secret=s3cret", requests.get(0).getCallback_url());
+    }
+
+    @Test
+    void callbackWithWrongSecretIsRejected() {
+        assertEquals(403, callbackController.onSubmissionFinished(finished(0), "wrong", true).getStatusCode().value());
+    }
+
+    @Test
+    void callbacksAreRefusedWithoutConfiguredSecret() {
+        ReflectionTestUtils.setField(callbackController, "callbackSecret", "");
+        assertEquals(404, callbackController.onSubmissionFinished(finished(0), null, true).getStatusCode().value());
+    }
+
+    @Test
+    void plainTextCallbackIsTakenAsIs() {
+        Judge0CallbackRegistry.PendingBatch batch = registry.register(List.of("token-0"));
+        Judge0Response response = finished(0);
+        response.setStdout("out-0");
+
+        assertEquals(200, callbackController.onSubmissionFinished(response, "s3cret", false).getStatusCode().value());
+        assertEquals("out-0", batch.snapshot().get(0).getStdout());
+    }
+
+    @Test
+    void callbackWithUndecodableOutputIsRejected() {
+        Judge0Response response = finished(0);
+        response.setStdout("not base64!");
+        assertEquals(400, callbackController.onSubmissionFinished(response, "s3cret", true).getStatusCode().value());
+    }
+
+    @Test
+    void parkedCallbacksAreBoundedBySize() {
+        Judge0CallbackRegistry bounded = new Judge0CallbackRegistry();
+        ReflectionTestUtils.setField(bounded, "maxEarlyCallbacks", 2);
+        for (int i = 0; i < 5; i++) {
+            assertFalse(bounded.complete(finished(i)));
+        }
+        assertEquals(2, bounded.getEarlyCallbackCount());
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            pollRequests.incrementAndGet();
+            respond(exchange, "{\"submissions\":[]}");
+            return;
+        }
+        exchange.getRequestBody().readAllBytes();
+        respond(exchange, "[{\"token\":\"token-0\"},{\"token\":\"token-1\"},{\"token\":\"token-2\"}]");
+
+        // Deliver results out of order, the first one possibly before the batch registers
+        for (int i = 2; i >= 0; i--) {
+            int index = i;
+            callbackSender.schedule(
+                    () -> callbackController.onSubmissionFinished(finished(index), "s3cret", true),
+                    20L * (3 - i), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // As Judge0 sends it: outputs base64-encoded with Ruby's trailing line break
+    private Judge0Response finished(int index) {
+        Judge0Response.Status status = new Judge0Response.Status();
+        status.setId(3);
+        status.setDescription("Accepted");
+        Judge0Response response = new Judge0Response();
+        response.setToken("token-" + index);
+        response.setStatus(status);
+        response.setStdout(Base64.getMimeEncoder().encodeToString(
+                ("out-" + index).getBytes(StandardCharsets.UTF_8)) + "\n");
+        response.setStderr("");
+        return response;
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(201, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
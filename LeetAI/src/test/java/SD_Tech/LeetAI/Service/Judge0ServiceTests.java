@@ -0,0 +1,292 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import SD_Tech.LeetAI.DTO.Judge0BatchResponse;
+import SD_Tech.LeetAI.DTO.Judge0BatchSubmissionRequest;
+import SD_Tech.LeetAI.DTO.Judge0Response;
+import reactor.core.publisher.Mono;
+
+/**
+ * Judge0Service against a stubbed Judge0Client: polling backoff and deadline, chunked
+ * batches that finish out of order, and the individual-submission fallback for endpoints
+ * without a batch API.
+ */
+class Judge0ServiceTests {
+
+    private Judge0Client judge0Client;
+    private Judge0Service judge0Service;
+
+    @BeforeEach
+    void setUp() {
+        judge0Client = mock(Judge0Client.class);
+        when(judge0Client.getApiBase()).thenReturn("http://judge0.test");
+
+        ExecutionResultCache cache = new ExecutionResultCache(100);
+        ReflectionTestUtils.setField(cache, "enabled", false);
+
+        judge0Service = new Judge0Service();
+        ReflectionTestUtils.setField(judge0Service, "judge0Client", judge0Client);
+        ReflectionTestUtils.setField(judge0Service, "judge0RateLimiter",
+                new TokenBucketRateLimiter(60000, 1000, Duration.ofSeconds(5)));
+        ReflectionTestUtils.setField(judge0Service, "judge0CallbackRegistry", new Judge0CallbackRegistry());
+        ReflectionTestUtils.setField(judge0Service, "executionResultCache", cache);
+        ReflectionTestUtils.setField(judge0Service, "fairEvaluationScheduler", new FairEvaluationScheduler(8, 20, 8, 3, 1));
+        ReflectionTestUtils.setField(judge0Service, "pollInitialDelayMs", 20L);
+        ReflectionTestUtils.setField(judge0Service, "pollMaxDelayMs", 80L);
+        ReflectionTestUtils.setField(judge0Service, "pollBackoffMultiplier", 2.0);
+        ReflectionTestUtils.setField(judge0Service, "pollJitter", 0.0);
+        ReflectionTestUtils.setField(judge0Service, "pollDeadlineMs", 5000L);
+    }
+
+    @Test
+    void pollingBacksOffAndStopsAskingForFinishedTokens() {
+        // token-a finishes in the second round, token-b in the fifth
+        AtomicInteger round = new AtomicInteger();
+        List<List<String>> requested = new CopyOnWriteArrayList<>();
+        List<Long> polledAt = new CopyOnWriteArrayList<>();
+        when(judge0Client.getBatch(anyList())).thenAnswer(invocation -> {
+            List<String> tokens = invocation.getArgument(0);
+            return Mono.fromCallable(() -> {
+                polledAt.add(System.nanoTime());
+                requested.add(List.copyOf(tokens));
+                int current = round.incrementAndGet();
+                List<Judge0Response> results = new ArrayList<>();
+                for (String token : tokens) {
+                    boolean done = token.equals("token-a") ? current >= 2 : current >= 5;
+                    results.add(response(token, done ? 3 : 2, done ? token + "-out" : null));
+                }
+                return results;
+            });
+        });
+
+        List<Judge0Response> results = judge0Service.pollBatchResultsAsync(List.of("token-a", "token-b"))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(
+                List.of("token-a", "token-b"),
+                List.of("token-a", "token-b"),
+                List.of("token-b"),
+                List.of("token-b"),
+                List.of("token-b")), requested);
+        // 20 ms first, then doubling up to the 80 ms cap
+        long[] delaysMs = { 40, 80, 80, 80 };
+        for (int i = 0; i < delaysMs.length; i++) {
+            long gapMs = TimeUnit.NANOSECONDS.toMillis(polledAt.get(i + 1) - polledAt.get(i));
+            assertTrue(gapMs >= delaysMs[i] - 1, "poll " + (i + 2) + " came after " + gapMs + " ms");
+        }
+        assertEquals("token-a-out", results.get(0).getStdout());
+        assertEquals("token-b-out", results.get(1).getStdout());
+    }
+
+    @Test
+    void tokensStillPendingAtTheDeadlineAreReportedAsStatus13() {
+        ReflectionTestUtils.setField(judge0Service, "pollDeadlineMs", 150L);
+        when(judge0Client.getBatch(anyList())).thenAnswer(invocation -> {
+            List<String> tokens = invocation.getArgument(0);
+            return Mono.fromCallable(() -> tokens.stream()
+                    .map(token -> token.equals("token-a") ? response(token, 3, "done") : response(token, 1, null))
+                    .toList());
+        });
+
+        long started = System.nanoTime();
+        List<Judge0Response> results = judge0Service.pollBatchResultsAsync(List.of("token-a", "token-b", "token-c"))
+                .block(Duration.ofSeconds(5));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals(List.of("token-a", "token-b", "token-c"), results.stream().map(Judge0Response::getToken).toList());
+        assertEquals(3, results.get(0).getStatus().getId());
+        assertEquals(13, results.get(1).getStatus().getId());
+        assertEquals(13, results.get(2).getStatus().getId());
+        assertTrue(elapsedMs >= 150 && elapsedMs < 1000, "finished after " + elapsedMs + " ms");
+    }
+
+    @Test
+    void failedPollIsRetriedInTheNextRound() {
+        AtomicInteger calls = new AtomicInteger();
+        when(judge0Client.getBatch(anyList())).thenAnswer(invocation -> Mono.defer(() -> calls.incrementAndGet() == 1
+                ? Mono.error(new IllegalStateException("connection reset"))
+                : Mono.just(List.of(response("token-a", 3, "out")))));
+
+        List<Judge0Response> results = judge0Service.pollBatchResultsAsync(List.of("token-a"))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(2, calls.get());
+        assertEquals("out", results.get(0).getStdout());
+    }
+
+    @Test
+    void chunksFinishingOutOfOrderKeepRequestOrder() {
+        ReflectionTestUtils.setField(judge0Service, "batchParallelism", 3);
+        // The first chunk is the slowest, the last one the fastest
+        Map<String, Long> delayByFirstStdin = Map.of("in-0", 150L, "in-20", 80L, "in-40", 10L);
+        List<Integer> chunkSizes = new CopyOnWriteArrayList<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(judge0Client.createBatch(anyList())).thenAnswer(invocation -> {
+            List<Judge0BatchSubmissionRequest> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            return Mono.delay(Duration.ofMillis(delayByFirstStdin.get(chunk.get(0).getStdin())))
+                    .map(tick -> finishedResults(chunk))
+                    .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                    .doOnTerminate(inFlight::decrementAndGet);
+        });
+
+        Map<Integer, String> reported = new ConcurrentHashMap<>();
+        List<Judge0Response> results = judge0Service.runBatchAsync(requests(45),
+                (index, result) -> reported.put(index, result.getStdout())).block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(20, 20, 5), chunkSizes);
+        assertEquals(3, maxInFlight.get());
+        assertEquals(45, results.size());
+        for (int i = 0; i < 45; i++) {
+            assertEquals("out-" + i, results.get(i).getStdout());
+            assertEquals("out-" + i, reported.get(i));
+        }
+    }
+
+    @Test
+    void chunksRunAtMostParallelismAtATime() {
+        ReflectionTestUtils.setField(judge0Service, "batchParallelism", 2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(judge0Client.createBatch(anyList())).thenAnswer(invocation -> {
+            List<Judge0BatchSubmissionRequest> chunk = invocation.getArgument(0);
+            return Mono.delay(Duration.ofMillis(30))
+                    .map(tick -> finishedResults(chunk))
+                    .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                    .doOnTerminate(inFlight::decrementAndGet);
+        });
+
+        List<Judge0Response> results = judge0Service.runBatchAsync(requests(100)).block(Duration.ofSeconds(5));
+
+        assertEquals(100, results.size());
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void batchDeadlineCancelsUnfinishedChunks() {
+        ReflectionTestUtils.setField(judge0Service, "batchDeadlineMs", 100L);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(judge0Client.createBatch(anyList())).thenAnswer(invocation -> {
+            List<Judge0BatchSubmissionRequest> chunk = invocation.getArgument(0);
+            // The second chunk never answers
+            return "in-20".equals(chunk.get(0).getStdin())
+                    ? Mono.never().doOnCancel(() -> cancelled.set(true))
+                    : Mono.just(finishedResults(chunk));
+        });
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> judge0Service.runBatchAsync(requests(30)).block(Duration.ofSeconds(5)));
+
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void missingBatchEndpointIsRememberedUntilTheTtlExpires() throws Exception {
+        ReflectionTestUtils.setField(judge0Service, "batchCapabilityTtlMs", 200L);
+        when(judge0Client.createBatch(anyList())).thenReturn(Mono.error(
+                WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY, new byte[0], null)));
+        stubIndividualRuns();
+
+        assertEquals(List.of("out-0", "out-1"), stdouts(judge0Service.submitBatchAsync(requests(2)).block()));
+        assertEquals(List.of("out-0", "out-1"), stdouts(judge0Service.submitBatchAsync(requests(2)).block()));
+        verify(judge0Client, times(1)).createBatch(anyList());
+
+        Thread.sleep(250);
+        judge0Service.submitBatchAsync(requests(2)).block();
+        verify(judge0Client, times(2)).createBatch(anyList());
+        verify(judge0Client, times(6)).createSubmission(anyMap(), eq(true));
+    }
+
+    @Test
+    void individualFallbackKeepsOrderAndReportsFailuresInPlace() {
+        when(judge0Client.createBatch(anyList())).thenReturn(Mono.error(
+                WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY, new byte[0], null)));
+        when(judge0Client.createSubmission(anyMap(), eq(true))).thenAnswer(invocation -> {
+            String stdin = (String) invocation.<Map<String, Object>>getArgument(0).get("stdin");
+            int index = Integer.parseInt(stdin.substring("in-".length()));
+            if (index == 2) {
+                return Mono.error(new IllegalStateException("connection reset"));
+            }
+            // Earlier requests answer later
+            return Mono.delay(Duration.ofMillis(10L * (6 - index))).map(tick -> response(null, 3, "out-" + index));
+        });
+
+        List<Judge0Response> results = judge0Service.submitBatchAsync(requests(6)).block(Duration.ofSeconds(5))
+                .getSubmissions();
+
+        assertEquals(Arrays.asList("out-0", "out-1", null, "out-3", "out-4", "out-5"), stdouts(results));
+        assertEquals(13, results.get(2).getStatus().getId());
+        assertEquals("connection reset", results.get(2).getStderr());
+    }
+
+    private void stubIndividualRuns() {
+        when(judge0Client.createSubmission(anyMap(), eq(true))).thenAnswer(invocation -> {
+            String stdin = (String) invocation.<Map<String, Object>>getArgument(0).get("stdin");
+            return Mono.just(response(null, 3, stdin.replace("in-", "out-")));
+        });
+    }
+
+    private static List<String> stdouts(Judge0BatchResponse batch) {
+        return stdouts(batch.getSubmissions());
+    }
+
+    private static List<String> stdouts(List<Judge0Response> results) {
+        return results.stream().map(Judge0Response::getStdout).toList();
+    }
+
+    private static List<Judge0BatchSubmissionRequest> requests(int count) {
+        List<Judge0BatchSubmissionRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(new Judge0BatchSubmissionRequest("71", "print(input())", "in-" + i));
+        }
+        return requests;
+    }
+
+    // Already finished, as Judge0 answers for cached or instant runs: nothing to poll
+    private static List<Judge0Response> finishedResults(List<Judge0BatchSubmissionRequest> chunk) {
+        return chunk.stream()
+                .map(request -> response("token-" + request.getStdin(), 3, request.getStdin().replace("in-", "out-")))
+                .toList();
+    }
+
+    private static Judge0Response response(String token, int statusId, String stdout) {
+        Judge0Response.Status status = new Judge0Response.Status();
+        status.setId(statusId);
+        Judge0Response response = new Judge0Response();
+        response.setToken(token);
+        response.setStatus(status);
+        response.setStdout(stdout);
+        return response;
+    }
+}
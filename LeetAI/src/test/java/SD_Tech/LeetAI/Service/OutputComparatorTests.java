@@ -0,0 +1,225 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import SD_Tech.LeetAI.Entity.OutputComparisonMode;
+
+/**
+ * Verdict tables for every comparison mode. Each case is also run through readers that hand
+ * out the text in small chunks, so whitespace runs, CRLF pairs and tokens straddle reads.
+ */
+class OutputComparatorTests {
+
+    private static final int[] CHUNK_SIZES = { 1, 2, 3, 7 };
+
+    static Stream<Arguments> exact() {
+        return Stream.of(
+                Arguments.of("", "", true),
+                Arguments.of("42", "42", true),
+                Arguments.of("a b\nc", "a b\nc", true),
+                Arguments.of("42\n", "42", false),
+                Arguments.of("42 ", "42", false),
+                Arguments.of("a\r\nb", "a\nb", false),
+                Arguments.of("4 2", "42", false),
+                Arguments.of("", "0", false),
+                Arguments.of("héllo 🎉", "héllo 🎉", true));
+    }
+
+    static Stream<Arguments> ignoreTrailingWhitespace() {
+        return Stream.of(
+                Arguments.of("", "", true),
+                Arguments.of("42", "42", true),
+                Arguments.of("42\n", "42", true),
+                Arguments.of("42 \t \n\n\n", "42", true),
+                Arguments.of("\n\n", "", true),
+                Arguments.of("   ", "", true),
+                // CRLF and trailing spaces before a line break
+                Arguments.of("1 2\r\n3 4\r\n", "1 2\n3 4", true),
+                Arguments.of("1 2  \n3 4\t\n", "1 2\n3 4\n", true),
+                Arguments.of("a\r\n\r\n", "a", true),
+                // Whitespace that is not trailing still counts
+                Arguments.of("1  2", "1 2", false),
+                Arguments.of(" 42", "42", false),
+                Arguments.of("a\n b", "a\nb", false),
+                Arguments.of("a\n\nb", "a\nb", false),
+                Arguments.of("\na", "a", false),
+                Arguments.of("a\rb", "a\nb", false),
+                Arguments.of("42", "43", false),
+                Arguments.of("42", "", false),
+                Arguments.of("4\n2", "42", false),
+                Arguments.of("line one  \n  line two  \n\n", "line one\n  line two", true));
+    }
+
+    static Stream<Arguments> token() {
+        return Stream.of(
+                Arguments.of("", "", true),
+                Arguments.of("  \n\t ", "", true),
+                Arguments.of("1 2 3", "1\n2\n3\n", true),
+                Arguments.of("  1\t\t2\r\n3  ", "1 2 3", true),
+                Arguments.of("1 2", "1 2 3", false),
+                Arguments.of("1 2 3", "1 2", false),
+                Arguments.of("", "1", false),
+                Arguments.of("12", "1 2", false),
+                Arguments.of("1.0", "1", false),
+                Arguments.of("YES", "yes", false),
+                Arguments.of("très 🎉", "très\n🎉", true));
+    }
+
+    static Stream<Arguments> floats() {
+        return Stream.of(
+                Arguments.of("1.0000001", "1", true),
+                Arguments.of("1.00001", "1", false),
+                Arguments.of("0.3333333", "0.333333333", true),
+                Arguments.of("1000000.5", "1000000", true),   // relative: 0.5 <= 1e-6 * 1e6
+                Arguments.of("1000002", "1000000", false),
+                Arguments.of("-0", "0", true),
+                Arguments.of("+.5", "0.5", true),
+                Arguments.of("1.", "1", true),
+                Arguments.of("1e-9", "0", true),
+                Arguments.of("2.5E+3", "2500", true),
+                // Non-numeric tokens still compare as text
+                Arguments.of("abc 1.0000001", "abc 1", true),
+                Arguments.of("abd 1", "abc 1", false),
+                Arguments.of("1e", "1", false),
+                Arguments.of("0x10", "16", false),
+                Arguments.of("1d", "1", false),
+                // NaN and infinities are not numbers here: only identical text matches
+                Arguments.of("NaN", "NaN", true),
+                Arguments.of("NaN", "nan", false),
+                Arguments.of("NaN", "0", false),
+                Arguments.of("Infinity", "Infinity", true),
+                Arguments.of("Infinity", "1e308", false),
+                Arguments.of("1e400", "1e400", true),
+                Arguments.of("1e400", "1e308", false),
+                Arguments.of("-1e400", "1e400", false),
+                // Token counts must agree
+                Arguments.of("1 2", "1 2 3", false),
+                Arguments.of("1 2 3", "1 2", false),
+                Arguments.of("", "0", false),
+                Arguments.of("3.14159\r\n2.71828\r\n", "3.1415900001 2.7182800001", true));
+    }
+
+    static Stream<Arguments> zeroTolerance() {
+        return Stream.of(
+                Arguments.of("1.0", "1", true),
+                Arguments.of("1.0000001", "1", false),
+                Arguments.of("0.1", "1e-1", true));
+    }
+
+    static Stream<Arguments> absoluteToleranceOnly() {
+        return Stream.of(
+                Arguments.of("1000.009", "1000", true),
+                Arguments.of("1000.02", "1000", false),
+                Arguments.of("0.005", "0", true));
+    }
+
+    static Stream<Arguments> relativeToleranceOnly() {
+        return Stream.of(
+                Arguments.of("1009", "1000", true),
+                Arguments.of("1011", "1000", false),
+                Arguments.of("0.000001", "0", false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("exact")
+    void exactMode(String actual, String expected, boolean match) throws IOException {
+        assertVerdict(new OutputComparator(OutputComparisonMode.EXACT, 0, 0), actual, expected, match);
+    }
+
+    @ParameterizedTest
+    @MethodSource("ignoreTrailingWhitespace")
+    void ignoreTrailingWhitespaceMode(String actual, String expected, boolean match) throws IOException {
+        assertVerdict(new OutputComparator(OutputComparisonMode.IGNORE_TRAILING_WHITESPACE, 0, 0), actual, expected, match);
+    }
+
+    @ParameterizedTest
+    @MethodSource("token")
+    void tokenMode(String actual, String expected, boolean match) throws IOException {
+        assertVerdict(new OutputComparator(OutputComparisonMode.TOKEN, 1, 1), actual, expected, match);
+    }
+
+    @ParameterizedTest
+    @MethodSource("floats")
+    void floatModeWithDefaultTolerances(String actual, String expected, boolean match) throws IOException {
+        assertVerdict(new OutputComparator(OutputComparisonMode.FLOAT, 1e-6, 1e-6), actual, expected, match);
+    }
+
+    @ParameterizedTest
+    @MethodSource("zeroTolerance")
+    void floatModeWithoutTolerance(String actual, String expected, boolean match) throws IOException {
+        assertVerdict(new OutputComparator(OutputComparisonMode.FLOAT, 0, 0), actual, expected, match);
+    }
+
+    @ParameterizedTest
+    @MethodSource("absoluteToleranceOnly")
+    void floatModeWithAbsoluteTolerance(String actual, String expected, boolean match) throws IOException {
+        assertVerdict(new OutputComparator(OutputComparisonMode.FLOAT, 0.01, 0), actual, expected, match);
+    }
+
+    @ParameterizedTest
+    @MethodSource("relativeToleranceOnly")
+    void floatModeWithRelativeTolerance(String actual, String expected, boolean match) throws IOException {
+        assertVerdict(new OutputComparator(OutputComparisonMode.FLOAT, 0, 0.01), actual, expected, match);
+    }
+
+    @ParameterizedTest
+    @MethodSource("ignoreTrailingWhitespace")
+    void nullModeDefaultsToIgnoringTrailingWhitespace(String actual, String expected, boolean match) throws IOException {
+        assertVerdict(new OutputComparator(null, 0, 0), actual, expected, match);
+    }
+
+    private static void assertVerdict(OutputComparator comparator, String actual, String expected, boolean match)
+            throws IOException {
+        String description = comparator.getMode() + ": " + escape(actual) + " vs " + escape(expected);
+        assertEquals(match, comparator.matches(actual, expected), description);
+        assertEquals(match, comparator.matches(expected, actual), description + " (swapped)");
+        for (int chunk : CHUNK_SIZES) {
+            assertEquals(match, comparator.matches(new ChunkedReader(actual, chunk), new ChunkedReader(expected, chunk + 1)),
+                    description + " in chunks of " + chunk);
+            assertEquals(match, comparator.matches(new BufferedReader(new ChunkedReader(actual, chunk), 2),
+                    new BufferedReader(new ChunkedReader(expected, chunk), 3)),
+                    description + " buffered in chunks of " + chunk);
+        }
+    }
+
+    private static String escape(String text) {
+        return "\"" + text.replace("\r", "\\r").replace("\n", "\\n").replace("\t", "\\t") + "\"";
+    }
+
+    // Hands out at most `chunk` characters per read, like a socket or pipe would
+    private static final class ChunkedReader extends Reader {
+
+        private final String text;
+        private final int chunk;
+        private int position;
+
+        ChunkedReader(String text, int chunk) {
+            this.text = text;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= text.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, chunk), text.length() - position);
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
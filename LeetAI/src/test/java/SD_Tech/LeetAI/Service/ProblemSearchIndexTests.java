@@ -0,0 +1,78 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import SD_Tech.LeetAI.Entity.Problem;
+import SD_Tech.LeetAI.Entity.Tag;
+
+class ProblemSearchIndexTests {
+
+    private ProblemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProblemSearchIndex();
+        index.update(problem(1L, "Two Sum", "Find two numbers in an array that add up to a target.", "EASY", "Arrays", "Hash Table"));
+        index.update(problem(2L, "Binary Search", "Search a sorted array for a target value.", "EASY", "Arrays", "Binary Search"));
+        index.update(problem(3L, "Longest Path in a Tree", "Return the longest path between two nodes of a binary tree.", "MEDIUM", "Trees"));
+        index.update(problem(4L, "Graph Coloring", "Color the graph so that no two neighbours share a color.", "HARD", "Graphs"));
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        assertEquals(List.of(2L, 3L), ids(index.search("binary", null, null)));
+        assertEquals(List.of(1L, 3L, 4L), ids(index.search("two", null, null)));
+    }
+
+    @Test
+    void wordsMatchAsPrefixes() {
+        assertEquals(List.of(2L), ids(index.search("sorted arr", null, null)));
+        assertEquals(List.of(4L), ids(index.search("neigh", null, null)));
+        assertEquals(List.of(), ids(index.search("sorted tree", null, null)));
+    }
+
+    @Test
+    void exactMatchesOutrankPrefixMatches() {
+        index.update(problem(5L, "Paths", "Count the paths.", "EASY"));
+        index.update(problem(6L, "Path", "One path.", "EASY"));
+        assertEquals(List.of(3L, 6L, 5L), ids(index.search("path", null, null)));
+    }
+
+    @Test
+    void filtersCombineWithTheQuery() {
+        assertEquals(List.of(1L, 2L), ids(index.search("array", "easy", null)));
+        assertEquals(List.of(2L), ids(index.search("array", null, List.of("binary search"))));
+        assertEquals(List.of(3L), ids(index.search(null, "MEDIUM", null)));
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(index.search("", null, null)));
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceIndexedTerms() {
+        index.update(problem(1L, "Three Sum", "Find three numbers.", "MEDIUM", "Arrays"));
+        assertEquals(List.of(3L, 4L), ids(index.search("two", null, null)));
+        assertEquals(List.of(1L), ids(index.search("three", "medium", List.of("arrays"))));
+
+        index.remove(4L);
+        assertEquals(List.of(), ids(index.search("graph", null, null)));
+        assertEquals(3, index.size());
+    }
+
+    private static List<Long> ids(List<ProblemSearchIndex.Hit> hits) {
+        return hits.stream().map(ProblemSearchIndex.Hit::problemId).toList();
+    }
+
+    private static Problem problem(Long id, String title, String description, String difficulty, String... tags) {
+        Problem problem = Problem.builder().title(title).description(description).difficulty(difficulty).build();
+        problem.setId(id);
+        problem.setTags(Set.of(tags).stream().map(name -> Tag.builder().name(name).build())
+                .collect(Collectors.toSet()));
+        return problem;
+    }
+}
@@ -0,0 +1,150 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import SD_Tech.LeetAI.Entity.Submission;
+import SD_Tech.LeetAI.Repository.SubmissionRepository;
+
+/**
+ * An Idempotency-Key replays its submission only for the same payload; a different payload
+ * under the same key is refused, also when it loses an insert race. Identical code repeats
+ * within window-seconds, also across a window boundary.
+ */
+class SubmissionDedupServiceTests {
+
+    private static final String KEY = "7:retry-1";
+
+    private SubmissionRepository submissionRepository;
+    private TransactionTemplate transactionTemplate;
+    private SubmissionDedupService service;
+
+    @BeforeEach
+    void setUp() {
+        submissionRepository = mock(SubmissionRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        service = new SubmissionDedupService(100);
+        ReflectionTestUtils.setField(service, "submissionRepository", submissionRepository);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+    }
+
+    @Test
+    void payloadHashCoversProblemLanguageAndCode() {
+        String hash = service.payloadHash(KEY, 1L, "python", "print(1)");
+
+        assertEquals(hash, service.payloadHash(KEY, 1L, "python", "print(1)"));
+        assertNotEquals(hash, service.payloadHash(KEY, 2L, "python", "print(1)"));
+        assertNotEquals(hash, service.payloadHash(KEY, 1L, "java", "print(1)"));
+        assertNotEquals(hash, service.payloadHash(KEY, 1L, "python", "print(2)"));
+        assertEquals(null, service.payloadHash(null, 1L, "python", "print(1)"));
+    }
+
+    @Test
+    void samePayloadReplaysTheSubmission() {
+        String hash = service.payloadHash(KEY, 1L, "python", "print(1)");
+        Submission earlier = stored(10L, hash);
+
+        assertSame(earlier, service.findExisting(KEY, hash, null).orElseThrow());
+    }
+
+    @Test
+    void differentPayloadIsRefused() {
+        stored(10L, service.payloadHash(KEY, 1L, "python", "print(1)"));
+
+        IdempotencyKeyReusedException e = assertThrows(IdempotencyKeyReusedException.class,
+                () -> service.findExisting(KEY, service.payloadHash(KEY, 1L, "python", "print(2)"), null));
+        assertEquals(10L, e.getSubmissionId());
+    }
+
+    @Test
+    void submissionsWithoutStoredHashAreStillReplayed() {
+        Submission legacy = stored(10L, null);
+
+        assertSame(legacy, service.findExisting(KEY, service.payloadHash(KEY, 1L, "python", "print(2)"), null).orElseThrow());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void losingAnInsertRaceWithADifferentPayloadIsRefused() {
+        stored(10L, service.payloadHash(KEY, 1L, "python", "print(1)"));
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_submissions_idempotency_key"));
+
+        Submission loser = new Submission();
+        loser.setIdempotencyKey(KEY);
+        loser.setIdempotencyPayloadHash(service.payloadHash(KEY, 1L, "python", "print(2)"));
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> service.insertOnce(loser, inserted -> { }));
+    }
+
+    @Test
+    void repeatJustAfterAWindowBoundaryIsCaught() {
+        // Windows of 10 s: the earlier submission at 19.9 s, the repeat at 20.5 s
+        Submission earlier = storedByDedupKey(11L, at(19_900), dedupKeyAt(19_900));
+
+        assertSame(earlier, service.findExisting(null, null, dedupKeyAt(20_500)).orElseThrow());
+    }
+
+    @Test
+    void previousWindowCountsOnlyWithinWindowSeconds() {
+        // 10.1 s and 20.5 s are in neighbouring windows but more than 10 s apart
+        storedByDedupKey(11L, at(10_100), dedupKeyAt(10_100));
+
+        assertEquals(Optional.empty(), service.findExisting(null, null, dedupKeyAt(20_500)));
+    }
+
+    @Test
+    void sameWindowIsARepeat() {
+        Submission earlier = storedByDedupKey(11L, at(20_100), dedupKeyAt(20_100));
+
+        assertSame(earlier, service.findExisting(null, null, dedupKeyAt(29_900)).orElseThrow());
+    }
+
+    // Key of the same code sent at epochMillis; also moves the service's clock there
+    private String dedupKeyAt(long epochMillis) {
+        ReflectionTestUtils.setField(service, "clock", Clock.fixed(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC));
+        return service.dedupKey(7L, 1L, "python", "print(1)");
+    }
+
+    private static LocalDateTime at(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    private Submission storedByDedupKey(Long id, LocalDateTime submissionTime, String dedupKey) {
+        Submission submission = new Submission();
+        submission.setId(id);
+        submission.setSubmissionTime(submissionTime);
+        submission.setDedupKey(dedupKey);
+        when(submissionRepository.findByDedupKey(dedupKey)).thenReturn(Optional.of(submission));
+        when(submissionRepository.findById(id)).thenReturn(Optional.of(submission));
+        return submission;
+    }
+
+    private Submission stored(Long id, String payloadHash) {
+        Submission submission = new Submission();
+        submission.setId(id);
+        submission.setIdempotencyKey(KEY);
+        submission.setIdempotencyPayloadHash(payloadHash);
+        when(submissionRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.of(submission));
+        when(submissionRepository.findById(id)).thenReturn(Optional.of(submission));
+        return submission;
+    }
+}
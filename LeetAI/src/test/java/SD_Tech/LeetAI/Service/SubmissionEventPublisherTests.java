@@ -0,0 +1,154 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import SD_Tech.LeetAI.DTO.TestCaseResultDTO;
+import SD_Tech.LeetAI.Entity.Submission;
+import SD_Tech.LeetAI.Repository.SubmissionRepository;
+
+/**
+ * A client receives its events in publish order, ending with the verdict, and the stream is
+ * completed only after the verdict went out. Sends are slowed down so that events published
+ * back to back would overtake each other if they were sent concurrently.
+ */
+class SubmissionEventPublisherTests {
+
+    private static final long SUBMISSION_ID = 7L;
+
+    private SubmissionRepository submissionRepository;
+    private RecordingEmitter emitter;
+    private SubmissionEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        submissionRepository = mock(SubmissionRepository.class);
+        emitter = new RecordingEmitter();
+        publisher = new SubmissionEventPublisher() {
+            @Override
+            SseEmitter createEmitter() {
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(publisher, "submissionRepository", submissionRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    void eventsArriveInPublishOrderEndingWithTheVerdict() throws Exception {
+        SubmissionRepository.StatusView pending = view("PENDING");
+        when(submissionRepository.findStatusById(SUBMISSION_ID)).thenReturn(Optional.of(pending));
+        publisher.subscribe(SUBMISSION_ID);
+
+        List<String> expected = new ArrayList<>(List.of("status", "status"));
+        publisher.publishStatus(SUBMISSION_ID, "RUNNING");
+        for (int i = 0; i < 20; i++) {
+            publisher.publishTestCase(SUBMISSION_ID, i, new TestCaseResultDTO());
+            expected.add("testcase:" + i);
+        }
+        publisher.publishVerdict(verdict("PASSED"));
+        expected.add("verdict");
+
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(expected, emitter.sentBeforeCompletion());
+    }
+
+    @Test
+    void finishedSubmissionGetsItsVerdictAndCompletes() throws Exception {
+        SubmissionRepository.StatusView failed = view("FAILED");
+        when(submissionRepository.findStatusById(SUBMISSION_ID)).thenReturn(Optional.of(failed));
+
+        publisher.subscribe(SUBMISSION_ID);
+        // Nothing more reaches a stream that already has its verdict
+        publisher.publishStatus(SUBMISSION_ID, "RUNNING");
+
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("verdict"), emitter.sentBeforeCompletion());
+    }
+
+    private static SubmissionRepository.StatusView view(String status) {
+        SubmissionRepository.StatusView view = mock(SubmissionRepository.StatusView.class);
+        when(view.getId()).thenReturn(SUBMISSION_ID);
+        when(view.getStatus()).thenReturn(status);
+        return view;
+    }
+
+    private static Submission verdict(String status) {
+        Submission submission = new Submission();
+        submission.setId(SUBMISSION_ID);
+        submission.setStatus(status);
+        submission.setPassedTestCases(20);
+        submission.setTotalTestCases(20);
+        return submission;
+    }
+
+    // Records "name" or "name:id" per send, and what had been sent when it was completed
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new ArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private List<String> atCompletion;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String name = null;
+            String id = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text) {
+                    for (String line : text.split("\n")) {
+                        if (line.startsWith("event:")) {
+                            name = line.substring("event:".length());
+                        } else if (line.startsWith("id:")) {
+                            id = line.substring("id:".length());
+                        }
+                    }
+                }
+            }
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (sent) {
+                sent.add(id == null ? name : name + ":" + id);
+            }
+        }
+
+        @Override
+        public void complete() {
+            synchronized (sent) {
+                atCompletion = List.copyOf(sent);
+            }
+            completed.countDown();
+        }
+
+        List<String> sentBeforeCompletion() throws InterruptedException {
+            // Give a late send the chance to show up
+            Thread.sleep(50);
+            synchronized (sent) {
+                assertEquals(atCompletion, sent);
+                return atCompletion;
+            }
+        }
+    }
+}
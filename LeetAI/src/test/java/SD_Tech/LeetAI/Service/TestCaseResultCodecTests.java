@@ -0,0 +1,165 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import SD_Tech.LeetAI.DTO.TestCaseResultDTO;
+
+/**
+ * Round trips through the binary result format, truncation, and rejection of damaged input.
+ */
+class TestCaseResultCodecTests {
+
+    @Test
+    void roundTripKeepsEveryField() {
+        TestCaseResultDTO passed = result(7L, true, false, 12L, 2048L, "42\n", null);
+        TestCaseResultDTO failed = result(8L, false, false, 0L, 0L, "", "Traceback (most recent call last)");
+        TestCaseResultDTO skipped = result(Long.MAX_VALUE - 1, false, true, Long.MAX_VALUE - 1, null, null, "Not run");
+
+        List<TestCaseResultDTO> decoded = TestCaseResultCodec.decode(
+                TestCaseResultCodec.encodeDtos(List.of(passed, failed, skipped), 2000));
+
+        assertEquals(3, decoded.size());
+        assertSame(passed, decoded.get(0));
+        assertSame(failed, decoded.get(1));
+        assertSame(skipped, decoded.get(2));
+    }
+
+    @Test
+    void nullsRoundTripAsNulls() {
+        TestCaseResultDTO empty = result(null, false, false, null, null, null, null);
+
+        TestCaseResultDTO decoded = TestCaseResultCodec.decode(TestCaseResultCodec.encodeDtos(List.of(empty), 2000)).get(0);
+
+        assertNull(decoded.getTestCaseId());
+        assertNull(decoded.getRuntimeMs());
+        assertNull(decoded.getMemoryKb());
+        assertNull(decoded.getActualOutput());
+        assertNull(decoded.getError());
+        assertFalse(decoded.isPassed());
+    }
+
+    @Test
+    void emptyListRoundTrips() {
+        assertTrue(TestCaseResultCodec.decode(TestCaseResultCodec.encodeDtos(List.of(), 2000)).isEmpty());
+    }
+
+    @Test
+    void unicodeRoundTrips() {
+        String output = "héllo wörld — 你好 🎉\r\n\tend";
+        TestCaseResultDTO decoded = TestCaseResultCodec.decode(
+                TestCaseResultCodec.encodeDtos(List.of(result(1L, true, false, 1L, 1L, output, "ошибка")), 2000)).get(0);
+
+        assertEquals(output, decoded.getActualOutput());
+        assertEquals("ошибка", decoded.getError());
+    }
+
+    @Test
+    void longStringsAreTruncatedToTheLimit() {
+        String output = "x".repeat(100_000);
+        TestCaseResultDTO decoded = TestCaseResultCodec.decode(
+                TestCaseResultCodec.encodeDtos(List.of(result(1L, true, false, 1L, 1L, output, output)), 2000)).get(0);
+
+        assertEquals("x".repeat(2000), decoded.getActualOutput());
+        assertEquals("x".repeat(2000), decoded.getError());
+    }
+
+    @Test
+    void truncationDoesNotSplitSurrogatePairs() {
+        assertEquals("ab", TestCaseResultCodec.truncate("ab🎉", 3));
+        assertEquals("ab🎉", TestCaseResultCodec.truncate("ab🎉c", 4));
+    }
+
+    @Test
+    void nonPositiveLimitTruncatesToEmpty() {
+        assertEquals("", TestCaseResultCodec.truncate("abc", 0));
+        assertEquals("", TestCaseResultCodec.truncate("abc", -5));
+        assertEquals("", TestCaseResultCodec.truncate("", 0));
+        assertNull(TestCaseResultCodec.truncate(null, 0));
+    }
+
+    @Test
+    void emptyOrShortInputIsRejected() {
+        byte[] encoded = TestCaseResultCodec.encodeDtos(
+                List.of(result(1L, true, false, 5L, 6L, "output", "error")), 2000);
+
+        assertThrows(IllegalArgumentException.class, () -> TestCaseResultCodec.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> TestCaseResultCodec.decode(null));
+        for (int length = 1; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IllegalArgumentException.class, () -> TestCaseResultCodec.decode(truncated),
+                    "truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void corruptedInputIsRejected() {
+        byte[] encoded = TestCaseResultCodec.encodeDtos(List.of(result(1L, true, false, 5L, 6L, "out", null)), 2000);
+
+        byte[] wrongVersion = encoded.clone();
+        wrongVersion[0] = 99;
+        assertThrows(IllegalArgumentException.class, () -> TestCaseResultCodec.decode(wrongVersion));
+
+        byte[] trailing = Arrays.copyOf(encoded, encoded.length + 1);
+        assertThrows(IllegalArgumentException.class, () -> TestCaseResultCodec.decode(trailing));
+
+        // A huge count must be rejected before anything is allocated for it
+        ByteArrayOutputStream hugeCount = new ByteArrayOutputStream();
+        hugeCount.write(TestCaseResultCodec.VERSION_1);
+        TestCaseResultCodec.writeVarint(hugeCount, Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> TestCaseResultCodec.decode(hugeCount.toByteArray()));
+
+        // A string length running past the end of the data
+        ByteArrayOutputStream longString = new ByteArrayOutputStream();
+        longString.write(TestCaseResultCodec.VERSION_1);
+        TestCaseResultCodec.writeVarint(longString, 1);
+        for (int field = 0; field < 4; field++) {
+            TestCaseResultCodec.writeVarint(longString, 0);
+        }
+        TestCaseResultCodec.writeVarint(longString, 1_000_000);
+        longString.write(new byte[8], 0, 8);
+        assertThrows(IllegalArgumentException.class, () -> TestCaseResultCodec.decode(longString.toByteArray()));
+
+        // Varint with the continuation bit set on every byte
+        byte[] endlessVarint = new byte[12];
+        endlessVarint[0] = TestCaseResultCodec.VERSION_1;
+        Arrays.fill(endlessVarint, 1, endlessVarint.length, (byte) 0xFF);
+        assertThrows(IllegalArgumentException.class, () -> TestCaseResultCodec.decode(endlessVarint));
+    }
+
+    private static void assertSame(TestCaseResultDTO expected, TestCaseResultDTO actual) {
+        assertEquals(expected.getTestCaseId(), actual.getTestCaseId());
+        assertEquals(expected.isPassed(), actual.isPassed());
+        assertEquals(expected.isSkipped(), actual.isSkipped());
+        assertEquals(expected.getRuntimeMs(), actual.getRuntimeMs());
+        assertEquals(expected.getMemoryKb(), actual.getMemoryKb());
+        assertEquals(expected.getActualOutput(), actual.getActualOutput());
+        assertEquals(expected.getError(), actual.getError());
+        assertNull(actual.getInput());
+        assertNull(actual.getExpectedOutput());
+    }
+
+    private static TestCaseResultDTO result(Long testCaseId, boolean passed, boolean skipped, Long runtimeMs,
+                                            Long memoryKb, String output, String error) {
+        TestCaseResultDTO dto = new TestCaseResultDTO();
+        dto.setTestCaseId(testCaseId);
+        dto.setInput("ignored input");
+        dto.setExpectedOutput("ignored expected output");
+        dto.setPassed(passed);
+        dto.setSkipped(skipped);
+        dto.setRuntimeMs(runtimeMs);
+        dto.setMemoryKb(memoryKb);
+        dto.setActualOutput(output);
+        dto.setError(error);
+        return dto;
+    }
+}
@@ -0,0 +1,121 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import SD_Tech.LeetAI.DTO.TestCaseResultDTO;
+import SD_Tech.LeetAI.Entity.Problem;
+import SD_Tech.LeetAI.Entity.Submission;
+import SD_Tech.LeetAI.Entity.User;
+import SD_Tech.LeetAI.Repository.SubmissionRepository;
+
+/**
+ * Legacy JSON results are moved into the binary column; unreadable JSON and submissions that
+ * already have a blob are left alone.
+ */
+@DataJpaTest
+class TestCaseResultsMigrationTests {
+
+    private static final String LEGACY_JSON = "[{\"testCaseId\":1,\"input\":\"1 2\",\"expectedOutput\":\"3\","
+            + "\"actualOutput\":\"3\",\"passed\":true,\"runtimeMs\":15,\"error\":null,\"someOldField\":1},"
+            + "{\"testCaseId\":2,\"input\":\"2 2\",\"expectedOutput\":\"4\","
+            + "\"actualOutput\":\"5\",\"passed\":false,\"runtimeMs\":11,\"error\":\"wrong\"}]";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private TestCaseResultsMigration migration;
+    private User user;
+    private Problem problem;
+
+    @BeforeEach
+    void setUp() {
+        migration = new TestCaseResultsMigration();
+        ReflectionTestUtils.setField(migration, "submissionRepository", submissionRepository);
+        ReflectionTestUtils.setField(migration, "transactionTemplate", transactionTemplate);
+        user = entityManager.persist(User.builder().name("Ada").email("ada@example.com").password("x").build());
+        problem = entityManager.persist(Problem.builder().title("Sum").difficulty("EASY").build());
+    }
+
+    @Test
+    void legacyJsonIsConvertedToTheBinaryColumn() {
+        Long id = submission(LEGACY_JSON, null).getId();
+
+        migrate();
+
+        Submission migrated = submissionRepository.findById(id).orElseThrow();
+        assertNull(migrated.getTestCaseResultsJson());
+        List<TestCaseResultDTO> results = TestCaseResultCodec.decode(migrated.getTestCaseResultsBlob());
+        assertEquals(2, results.size());
+        assertEquals(1L, results.get(0).getTestCaseId());
+        assertEquals("3", results.get(0).getActualOutput());
+        assertEquals(15L, results.get(0).getRuntimeMs());
+        assertEquals(false, results.get(1).isPassed());
+        assertEquals("wrong", results.get(1).getError());
+        assertNull(results.get(1).getInput());
+    }
+
+    @Test
+    void unreadableJsonIsLeftInPlace() {
+        Long broken = submission("{not json", null).getId();
+        Long readable = submission(LEGACY_JSON, null).getId();
+
+        migrate();
+
+        Submission untouched = submissionRepository.findById(broken).orElseThrow();
+        assertEquals("{not json", untouched.getTestCaseResultsJson());
+        assertNull(untouched.getTestCaseResultsBlob());
+        assertNotNull(submissionRepository.findById(readable).orElseThrow().getTestCaseResultsBlob());
+    }
+
+    @Test
+    void existingBlobsAreNotOverwritten() {
+        byte[] blob = TestCaseResultCodec.encodeDtos(List.of(), 2000);
+        Long id = submission(LEGACY_JSON, blob).getId();
+
+        migrate();
+
+        Submission kept = submissionRepository.findById(id).orElseThrow();
+        assertEquals(LEGACY_JSON, kept.getTestCaseResultsJson());
+        assertEquals(0, TestCaseResultCodec.decode(kept.getTestCaseResultsBlob()).size());
+    }
+
+    private void migrate() {
+        entityManager.flush();
+        entityManager.clear();
+        migration.migrate();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Submission submission(String json, byte[] blob) {
+        Submission submission = new Submission();
+        submission.setUser(user);
+        submission.setProblem(problem);
+        submission.setCode("print(sum(map(int, input().split())))");
+        submission.setLanguage("python");
+        submission.setStatus("FAILED");
+        submission.setSubmissionTime(LocalDateTime.now());
+        submission.setTestCaseResultsJson(json);
+        submission.setTestCaseResultsBlob(blob);
+        return entityManager.persist(submission);
+    }
+}
@@ -0,0 +1,135 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Burst and refill tables against a clock the test moves by hand. Waiting reservations run
+ * on real time, so the delay tests keep the hand clock still and measure how long
+ * {@code acquire()} takes.
+ */
+class TokenBucketRateLimiterTests {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    // permits per minute, burst, time passed after emptying the bucket, permits available then
+    static Stream<Arguments> refills() {
+        return Stream.of(
+                Arguments.of(60, 1, 0L, 0),
+                Arguments.of(60, 1, 999L, 0),
+                Arguments.of(60, 1, 1000L, 1),
+                Arguments.of(60, 5, 999L, 0),
+                Arguments.of(60, 5, 1000L, 1),
+                Arguments.of(60, 5, 3500L, 3),
+                // Never more than the burst, however long the bucket was idle
+                Arguments.of(60, 5, 60_000L, 5),
+                Arguments.of(600, 3, 250L, 2),
+                Arguments.of(30, 2, 1999L, 0),
+                Arguments.of(30, 2, 4000L, 2));
+    }
+
+    @ParameterizedTest
+    @MethodSource("refills")
+    void fullBucketGivesBurstThenRefillsAtTheRate(int permitsPerMinute, int burst, long passedMs, int expected) {
+        TokenBucketRateLimiter limiter = limiter(permitsPerMinute, burst, Duration.ZERO);
+
+        assertEquals(burst, drain(limiter));
+        advance(passedMs);
+        assertEquals(expected, drain(limiter));
+    }
+
+    @Test
+    void emptyBucketReportsTheWaitForTheNextPermit() {
+        TokenBucketRateLimiter limiter = limiter(60, 2, Duration.ZERO);
+        drain(limiter);
+
+        assertEquals(Duration.ofSeconds(1), limiter.estimateWait());
+        advance(400);
+        assertEquals(Duration.ofMillis(600), limiter.estimateWait());
+    }
+
+    @Test
+    void acquireWaitsForTheNextPermitInsteadOfFailing() {
+        TokenBucketRateLimiter limiter = limiter(600, 2, Duration.ofSeconds(5));
+        limiter.acquire().block();
+        limiter.acquire().block();
+
+        long started = System.nanoTime();
+        limiter.acquire().block(Duration.ofSeconds(5));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 90);
+    }
+
+    @Test
+    void concurrentAcquiresEachGetTheirOwnSlot() throws Exception {
+        // 50 ms per permit, burst 4: 16 callers at once take slots 0 to 12 intervals out
+        TokenBucketRateLimiter limiter = limiter(1200, 4, Duration.ofSeconds(1));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> callers = new ArrayList<>();
+        long started = System.nanoTime();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 16; i++) {
+                callers.add(threads.submit(() -> {
+                    start.await();
+                    return limiter.acquire().block(Duration.ofSeconds(5));
+                }));
+            }
+            start.countDown();
+            for (Future<?> caller : callers) {
+                caller.get(5, TimeUnit.SECONDS); // none was refused
+            }
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 590);
+        // No reservation was lost to a concurrent update
+        assertEquals(Duration.ofMillis(650), limiter.estimateWait());
+    }
+
+    @Test
+    void reservationBeyondTheMaxWaitIsRefusedAndNotTaken() {
+        TokenBucketRateLimiter limiter = limiter(60, 1, Duration.ofMillis(1500));
+        assertTrue(limiter.tryAcquire());
+        limiter.acquire().subscribe(); // reserves the slot one second out
+
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire().block());
+
+        assertEquals(Duration.ofSeconds(2), e.getRetryAfter());
+        assertEquals(Duration.ofSeconds(2), limiter.estimateWait());
+    }
+
+    private TokenBucketRateLimiter limiter(int permitsPerMinute, int burst, Duration maxWait) {
+        return new TokenBucketRateLimiter(permitsPerMinute, burst, maxWait, now::get);
+    }
+
+    private void advance(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static int drain(TokenBucketRateLimiter limiter) {
+        int taken = 0;
+        while (limiter.tryAcquire()) {
+            taken++;
+        }
+        assertFalse(limiter.tryAcquire());
+        return taken;
+    }
+}
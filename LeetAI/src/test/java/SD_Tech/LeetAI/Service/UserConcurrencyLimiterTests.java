@@ -0,0 +1,90 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Hammers the per-user cap from many threads and checks that no user ever has more than the
+ * cap in flight, that every user still gets through, and that nothing is left counted.
+ */
+class UserConcurrencyLimiterTests {
+
+    private static final int CAP = 2;
+    private static final int USERS = 8;
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 20_000;
+
+    @Test
+    void capHoldsUnderContention() throws Exception {
+        UserConcurrencyLimiter limiter = new UserConcurrencyLimiter(CAP);
+        AtomicIntegerArray running = new AtomicIntegerArray(USERS);
+        AtomicIntegerArray completed = new AtomicIntegerArray(USERS);
+        AtomicInteger violations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ROUNDS; i++) {
+                        int user = ThreadLocalRandom.current().nextInt(USERS);
+                        if (!limiter.tryAcquire((long) user)) {
+                            continue;
+                        }
+                        if (running.incrementAndGet(user) > CAP) {
+                            violations.incrementAndGet();
+                        }
+                        if (ThreadLocalRandom.current().nextInt(8) == 0) {
+                            Thread.yield();
+                        }
+                        running.decrementAndGet(user);
+                        completed.incrementAndGet(user);
+                        limiter.release((long) user);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, violations.get());
+        for (int user = 0; user < USERS; user++) {
+            assertTrue(completed.get(user) > 0, "user " + user + " never got a slot");
+            assertEquals(0, limiter.inFlight((long) user));
+        }
+        assertTrue(limiter.saturatedUsers().isEmpty());
+    }
+
+    @Test
+    void extraAcquisitionsAreRefusedUntilReleased() {
+        UserConcurrencyLimiter limiter = new UserConcurrencyLimiter(CAP);
+        assertTrue(limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L));
+        assertFalse(limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(2L));
+
+        limiter.release(1L);
+        assertTrue(limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(null));
+    }
+}
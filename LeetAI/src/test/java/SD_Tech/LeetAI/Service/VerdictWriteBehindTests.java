@@ -0,0 +1,233 @@
+package SD_Tech.LeetAI.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import SD_Tech.LeetAI.Entity.Problem;
+import SD_Tech.LeetAI.Entity.Submission;
+import SD_Tech.LeetAI.Entity.User;
+import SD_Tech.LeetAI.Repository.ProblemRepository;
+import SD_Tech.LeetAI.Repository.SubmissionRepository;
+import SD_Tech.LeetAI.Repository.UserRepository;
+
+/**
+ * Verdicts of several workers are stored by one flush, writers return only once their verdict
+ * is committed, and a refused guard or a failing row affects only its own verdict. Not run in
+ * a test transaction, since the writers and the flush use their own.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VerdictWriteBehindTests {
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private StatsService statsService;
+    private VerdictWriteBehind writeBehind;
+    private ExecutorService workers;
+    private User user;
+    private Problem problem;
+
+    @BeforeEach
+    void setUp() {
+        statsService = mock(StatsService.class);
+        writeBehind = new VerdictWriteBehind();
+        ReflectionTestUtils.setField(writeBehind, "submissionRepository", submissionRepository);
+        ReflectionTestUtils.setField(writeBehind, "statsService", statsService);
+        ReflectionTestUtils.setField(writeBehind, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(writeBehind, "flushSize", 100);
+        workers = Executors.newVirtualThreadPerTaskExecutor();
+        user = userRepository.save(User.builder().name("Ada").email("ada@example.com").password("x").build());
+        problem = problemRepository.save(Problem.builder().title("Sum").difficulty("EASY").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+        submissionRepository.deleteAll();
+        problemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void verdictsOfSeveralWorkersAreStoredByOneFlush() throws Exception {
+        List<Submission> submissions = List.of(pending(), pending(), pending());
+        List<Future<?>> writers = new ArrayList<>();
+        for (Submission submission : submissions) {
+            writers.add(workers.submit(() -> writeBehind.write(verdict(submission, "PASSED"), () -> { })));
+        }
+        awaitQueued(3);
+
+        // Nothing is stored, or returned to the writers, before the flush
+        assertEquals("PENDING", submissionRepository.findById(submissions.get(0).getId()).orElseThrow().getStatus());
+        writers.forEach(writer -> assertEquals(false, writer.isDone()));
+
+        writeBehind.flush();
+        for (Future<?> writer : writers) {
+            writer.get(5, TimeUnit.SECONDS);
+        }
+        for (Submission submission : submissions) {
+            Submission stored = submissionRepository.findById(submission.getId()).orElseThrow();
+            assertEquals("PASSED", stored.getStatus());
+            assertEquals(4, stored.getPassedTestCases());
+            assertEquals(0, TestCaseResultCodec.decode(stored.getTestCaseResultsBlob()).size());
+        }
+        verify(statsService, times(3)).record(any(Submission.class));
+    }
+
+    @Test
+    void fullBufferFlushesInline() throws Exception {
+        ReflectionTestUtils.setField(writeBehind, "flushSize", 1);
+        Submission submission = pending();
+
+        writeBehind.write(verdict(submission, "FAILED"), () -> { });
+
+        assertEquals("FAILED", submissionRepository.findById(submission.getId()).orElseThrow().getStatus());
+        assertEquals(0, writeBehind.getQueued());
+    }
+
+    @Test
+    void refusedGuardDiscardsOnlyThatVerdict() throws Exception {
+        Submission kept = pending();
+        Submission discarded = pending();
+        Future<?> keptWriter = workers.submit(() -> writeBehind.write(verdict(kept, "PASSED"), () -> { }));
+        Future<?> discardedWriter = workers.submit(() -> writeBehind.write(verdict(discarded, "PASSED"), () -> {
+            throw new IllegalStateException("Lease lost");
+        }));
+        awaitQueued(2);
+
+        writeBehind.flush();
+
+        keptWriter.get(5, TimeUnit.SECONDS);
+        assertCause(IllegalStateException.class, discardedWriter);
+        assertEquals("PASSED", submissionRepository.findById(kept.getId()).orElseThrow().getStatus());
+        assertEquals("PENDING", submissionRepository.findById(discarded.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void failingRowDoesNotFailTheOthers() throws Exception {
+        Submission good = pending();
+        Submission bad = pending();
+        doThrow(new IllegalArgumentException("broken row"))
+                .when(statsService).record(argThat(submission -> submission.getId().equals(bad.getId())));
+        Future<?> goodWriter = workers.submit(() -> writeBehind.write(verdict(good, "PASSED"), () -> { }));
+        Future<?> badWriter = workers.submit(() -> writeBehind.write(verdict(bad, "PASSED"), () -> { }));
+        awaitQueued(2);
+
+        writeBehind.flush();
+
+        goodWriter.get(5, TimeUnit.SECONDS);
+        assertCause(IllegalArgumentException.class, badWriter);
+        assertEquals("PASSED", submissionRepository.findById(good.getId()).orElseThrow().getStatus());
+        assertEquals("PENDING", submissionRepository.findById(bad.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void unwrittenVerdictIsVisibleToReaders() throws Exception {
+        Submission submission = pending();
+        Future<?> writer = workers.submit(() -> writeBehind.write(verdict(submission, "FAILED"), () -> { }));
+        awaitQueued(1);
+
+        Submission read = submissionRepository.findById(submission.getId()).orElseThrow();
+        writeBehind.applyUnwritten(read);
+        assertEquals("FAILED", read.getStatus());
+        assertEquals(4, read.getTotalTestCases());
+
+        writeBehind.flush();
+        writer.get(5, TimeUnit.SECONDS);
+        Submission afterFlush = submissionRepository.findById(submission.getId()).orElseThrow();
+        afterFlush.setStatus("PENDING");
+        writeBehind.applyUnwritten(afterFlush);
+        assertEquals("PENDING", afterFlush.getStatus());
+    }
+
+    @Test
+    void writesAfterShutdownAreStoredInline() {
+        writeBehind.flushOnShutdown();
+        Submission submission = pending();
+
+        writeBehind.write(verdict(submission, "PASSED"), () -> { });
+
+        assertEquals("PASSED", submissionRepository.findById(submission.getId()).orElseThrow().getStatus());
+    }
+
+    private void awaitQueued(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writeBehind.getQueued() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, writeBehind.getQueued());
+    }
+
+    private static void assertCause(Class<? extends Throwable> expected, Future<?> writer) throws InterruptedException {
+        try {
+            writer.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            assertInstanceOf(expected, e.getCause());
+            return;
+        }
+        throw new AssertionError("expected " + expected.getSimpleName());
+    }
+
+    private Submission pending() {
+        Submission submission = new Submission();
+        submission.setUser(user);
+        submission.setProblem(problem);
+        submission.setCode("print(1)");
+        submission.setLanguage("python");
+        submission.setStatus("PENDING");
+        submission.setSubmissionTime(LocalDateTime.now());
+        Submission saved = submissionRepository.save(submission);
+        assertNull(saved.getTestCaseResultsBlob());
+        return saved;
+    }
+
+    // What a worker hands over: the submission it loaded, with the verdict filled in
+    private static Submission verdict(Submission loaded, String status) {
+        Submission verdict = new Submission();
+        verdict.setId(loaded.getId());
+        verdict.setUser(loaded.getUser());
+        verdict.setProblem(loaded.getProblem());
+        verdict.setStatus(status);
+        verdict.setFeedback("Judge0 evaluation results:\n");
+        verdict.setPassedTestCases(4);
+        verdict.setTotalTestCases(4);
+        verdict.setRuntimeMs(40L);
+        verdict.setTestCaseResultsBlob(TestCaseResultCodec.encodeDtos(List.of(), 2000));
+        return verdict;
+    }
+}